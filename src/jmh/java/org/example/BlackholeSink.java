@@ -0,0 +1,32 @@
+package org.example;
+
+import org.example.interpreter.output.OutputSink;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Sink giving every value to the blackhole, so the output is not optimized away and costs nothing to keep
+class BlackholeSink implements OutputSink {
+
+    private final Blackhole blackhole;
+
+    BlackholeSink(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void writeInt(int value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void writeBool(boolean value) {
+        blackhole.consume(value);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Hot paths of the engines: calls, arithmetic in a loop, out and the factorial and mutual-rec test programs. The
+// programs are compiled once, every invocation is a full run writing to a blackhole.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xss64m")
+public class EngineBenchmark {
+
+    private static final String CALL = "fun id(n) { return n }\n"
+            + "i = 0; s = 0; while (i < 10000) { s = s + id(i); i = i + 1 }; out(s)";
+    private static final String ARITHMETIC = "i = 0; s = 0;\n"
+            + "while (i < 10000) { s = s + i * 3 mod 7 + i / 5 - 1; i = i + 1 }; out(s)";
+    private static final String OUT = "i = 0; while (i < 10000) { out(i); out(i < 5000); i = i + 1 }";
+
+    @Param({"TREE", "SLOT", "VM", "JIT", "NODES"})
+    public Engine engine;
+
+    private Program call;
+    private Program arithmetic;
+    private Program out;
+    private Program factorial;
+    private Program mutualRec;
+
+    @Setup
+    public void setup() {
+        call = Program.compile(CALL, Optimizer.all());
+        arithmetic = Program.compile(ARITHMETIC, Optimizer.all());
+        out = Program.compile(OUT, Optimizer.all());
+        factorial = Program.compile(resource("factorial"), Optimizer.all());
+        mutualRec = Program.compile(resource("mutual-rec"), Optimizer.all());
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = EngineBenchmark.class.getResourceAsStream("/well-typed/" + name)) {
+            assert in != null;
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run(Program program, Blackhole blackhole) {
+        program.run(engine, new BlackholeSink(blackhole), Main.DEFAULT_MAX_DEPTH);
+    }
+
+    @Benchmark
+    public void call(Blackhole blackhole) {
+        run(call, blackhole);
+    }
+
+    @Benchmark
+    public void arithmetic(Blackhole blackhole) {
+        run(arithmetic, blackhole);
+    }
+
+    @Benchmark
+    public void out(Blackhole blackhole) {
+        run(out, blackhole);
+    }
+
+    @Benchmark
+    public void factorial(Blackhole blackhole) {
+        run(factorial, blackhole);
+    }
+
+    @Benchmark
+    public void mutualRec(Blackhole blackhole) {
+        run(mutualRec, blackhole);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.example.interpreter.antlr.ImpLexer;
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.parser.IrParser;
+import org.example.interpreter.parser.Lexer;
+import org.example.interpreter.parser.Names;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Lexing and parsing of a generated program with the ANTLR front end and with the hand written one
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xss64m")
+public class FrontEndBenchmark {
+
+    // Number of functions of the generated program
+    @Param({"10", "1000"})
+    public int functions;
+
+    private String source;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setup() {
+        source = new ProgramGenerator(42).generate(functions, 8, 4);
+        bytes = ByteBuffer.wrap(source.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public void lexAntlr(Blackhole blackhole) {
+        ImpLexer lexer = new ImpLexer(CharStreams.fromString(source));
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            blackhole.consume(token);
+        }
+    }
+
+    @Benchmark
+    public void lexDirect(Blackhole blackhole) {
+        Lexer lexer = new Lexer(bytes.duplicate(), new Names());
+        for (; lexer.getType() != Token.EOF; lexer.next()) {
+            blackhole.consume(lexer.getType());
+        }
+    }
+
+    @Benchmark
+    public Object parseTwoStage() {
+        return FrontEnd.parse(source).getTree();
+    }
+
+    @Benchmark
+    public Object parseLL() {
+        return FrontEnd.parseLL(source);
+    }
+
+    @Benchmark
+    public Object resolveFromTree() {
+        return Resolver.resolve(FrontEnd.parse(source).getTree());
+    }
+
+    @Benchmark
+    public Object parseDirect() {
+        return IrParser.parse(bytes.duplicate());
+    }
+}
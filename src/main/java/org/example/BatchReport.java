@@ -0,0 +1,61 @@
+package org.example;
+
+import java.util.List;
+import java.util.Locale;
+
+// Results of a batch in the order of the input, with the throughput and the distribution of the latencies
+public class BatchReport {
+
+    private final List<BatchResult> results;
+    // Time from the start of the first program to the end of the last one
+    private final long nanos;
+    // Latencies of the programs, sorted
+    private final long[] latencies;
+
+    public BatchReport(List<BatchResult> results, long nanos) {
+        this.results = List.copyOf(results);
+        this.nanos = nanos;
+        this.latencies = results.stream().mapToLong(BatchResult::getNanos).sorted().toArray();
+    }
+
+    public List<BatchResult> getResults() {
+        return results;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getFailures() {
+        return results.stream().filter(BatchResult::isFailed).count();
+    }
+
+    // Programs completed per second of wall time
+    public double getThroughput() {
+        return nanos == 0 ? 0 : results.size() * 1e9 / nanos;
+    }
+
+    // Latency of the given percentile between 0 and 100, by nearest rank
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+        return latencies[Math.max(rank - 1, 0)];
+    }
+
+    public long getMax() {
+        return latencies.length == 0 ? 0 : latencies[latencies.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d programs, %d failed in %.3f s: %.1f programs/s%n"
+                        + "latency ms p50 %.3f, p90 %.3f, p99 %.3f, max %.3f",
+                results.size(), getFailures(), nanos / 1e9, getThroughput(),
+                getPercentile(50) / 1e6, getPercentile(90) / 1e6, getPercentile(99) / 1e6, getMax() / 1e6);
+    }
+}
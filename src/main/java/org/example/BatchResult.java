@@ -0,0 +1,69 @@
+package org.example;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+// Outcome of a program run by the BatchRunner: its output, the error that stopped it, how long it took and the
+// measures of the run
+public class BatchResult {
+
+    private final Path path;
+    // Output written before the error, the output of a program that ended normally is in its execution
+    @Nullable
+    private final String failedOutput;
+    // Report of the failure, null when the program ended normally
+    @Nullable
+    private final String error;
+    // Time to compile and run the program
+    private final long nanos;
+    // Measures of the run, null when the program failed
+    @Nullable
+    private final ExecutionResult execution;
+
+    // A program that ended normally
+    public BatchResult(Path path, long nanos, ExecutionResult execution) {
+        this(path, null, null, nanos, execution);
+    }
+
+    // A program stopped by the error after writing the output
+    public BatchResult(Path path, String output, String error, long nanos) {
+        this(path, output, error, nanos, null);
+    }
+
+    private BatchResult(Path path, @Nullable String failedOutput, @Nullable String error, long nanos,
+                        @Nullable ExecutionResult execution) {
+        this.path = path;
+        this.failedOutput = failedOutput;
+        this.error = error;
+        this.nanos = nanos;
+        this.execution = execution;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Output written before the end of the program or before the error
+    public String getOutput() {
+        return execution != null ? execution.getOutput() : failedOutput;
+    }
+
+    @Nullable
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Nullable
+    public ExecutionResult getExecution() {
+        return execution;
+    }
+}
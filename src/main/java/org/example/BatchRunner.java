@@ -0,0 +1,126 @@
+package org.example;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Run many programs on a bounded pool of threads. Every program is compiled and run on its own with the output
+// captured in memory, so a program that panics or overflows the stack only fails its own result.
+public class BatchRunner {
+
+    private final Engine engine;
+    private final Optimizer optimizer;
+    // Number of programs running at the same time
+    private final int parallelism;
+    private final int maxDepth;
+    // Limits of every program, so a program that never ends fails on its own instead of holding a thread
+    private final long fuel;
+    private final long timeoutNanos;
+
+    public BatchRunner(Engine engine, Optimizer optimizer, int parallelism, int maxDepth, long fuel,
+                       long timeoutNanos) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.engine = engine;
+        this.optimizer = optimizer;
+        this.parallelism = parallelism;
+        this.maxDepth = maxDepth;
+        this.fuel = fuel;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    public BatchRunner(Engine engine, Optimizer optimizer, int parallelism, int maxDepth) {
+        this(engine, optimizer, parallelism, maxDepth, Meter.UNLIMITED, Meter.UNLIMITED);
+    }
+
+    public BatchRunner(Engine engine, int parallelism) {
+        this(engine, Optimizer.all(), parallelism, Main.DEFAULT_MAX_DEPTH);
+    }
+
+    // The programs of a directory, skipping the expected outputs .out of the tests, or the files matching a glob
+    // like dir/*.fun. The files are sorted by path.
+    public static List<Path> files(String input) {
+        Path path = Paths.get(input);
+        Path dir;
+        PathMatcher matcher;
+        if (Files.isDirectory(path)) {
+            dir = path;
+            matcher = (file) -> !file.getFileName().toString().endsWith(".out");
+        } else {
+            dir = path.getParent() != null ? path.getParent() : Paths.get(".");
+            PathMatcher glob = FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+            matcher = (file) -> glob.matches(file.getFileName());
+        }
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public BatchReport run(List<Path> files) {
+        // The engines use the Java stack for the non tail calls, like in Main.execute
+        long stack = engine == Engine.VM ? 0 : maxDepth * Main.STACK_PER_CALL;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism,
+                (run) -> new Thread(null, run, "havefun-batch", stack));
+        try {
+            long start = System.nanoTime();
+            List<Future<BatchResult>> futures = new ArrayList<>();
+            for (Path file : files) {
+                futures.add(pool.submit(() -> run(file)));
+            }
+            List<BatchResult> results = new ArrayList<>();
+            for (Future<BatchResult> future : futures) {
+                results.add(future.get());
+            }
+            return new BatchReport(results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private BatchResult run(Path file) {
+        long start = System.nanoTime();
+        MemorySink out = new MemorySink();
+        String error;
+        try {
+            Program program = Program.compile(Files.readString(file), optimizer);
+            // The timeout counts only the run, not the compilation
+            ExecutionResult execution = ExecutionResult.measure(program, engine, null, out, maxDepth,
+                    new Meter(fuel, timeoutNanos), null);
+            return new BatchResult(file, System.nanoTime() - start, execution);
+        } catch (PanicException e) {
+            error = e.getReport();
+        } catch (StackOverflowError e) {
+            error = "Stack overflow";
+        } catch (IOException | RuntimeException e) {
+            error = e.toString();
+        }
+        return new BatchResult(file, out.getOutput(), error, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import java.util.Locale;
+
+// Snapshot of the counters of a ProgramCache
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    // Programs compiled, successfully or with a panic
+    private final long loads;
+    private final long loadFailures;
+    private final long loadNanos;
+    private final long evictions;
+    // Programs in the cache and their total estimated size
+    private final int size;
+    private final long weight;
+
+    CacheStats(long hits, long misses, long loads, long loadFailures, long loadNanos, long evictions, int size,
+               long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loads = loads;
+        this.loadFailures = loadFailures;
+        this.loadNanos = loadNanos;
+        this.evictions = evictions;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Fraction of the requests found in the cache, 0 without requests
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    // Total time spent compiling programs
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getAverageLoadNanos() {
+        return loads == 0 ? 0 : loadNanos / loads;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "hits=%d misses=%d hitRate=%.3f loads=%d failures=%d avgLoadMs=%.3f "
+                        + "evictions=%d size=%d weight=%d", hits, misses, getHitRate(), loads, loadFailures,
+                getAverageLoadNanos() / 1e6, evictions, size, weight);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+// Time spent in every phase of the compilation of a program. The direct parser lexes while parsing, so its lexing
+// time is part of the parse one.
+public class CompileTimes {
+
+    private final long lexNanos;
+    // Parsing and building of the IR
+    private final long parseNanos;
+    private final long checkNanos;
+    private final long optimizeNanos;
+
+    public CompileTimes(long lexNanos, long parseNanos, long checkNanos, long optimizeNanos) {
+        this.lexNanos = lexNanos;
+        this.parseNanos = parseNanos;
+        this.checkNanos = checkNanos;
+        this.optimizeNanos = optimizeNanos;
+    }
+
+    public long getLexNanos() {
+        return lexNanos;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getCheckNanos() {
+        return checkNanos;
+    }
+
+    public long getOptimizeNanos() {
+        return optimizeNanos;
+    }
+
+    public long getTotalNanos() {
+        return lexNanos + parseNanos + checkNanos + optimizeNanos;
+    }
+}
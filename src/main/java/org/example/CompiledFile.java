@@ -0,0 +1,47 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.vm.BytecodeFile;
+import org.example.interpreter.vm.BytecodeProgram;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Compiled programs kept next to their source in a .hfc file. A valid file for the current source is mapped and
+// run without parsing, a missing, stale or corrupted one is rebuilt from the source.
+public final class CompiledFile {
+
+    public static final String EXTENSION = ".hfc";
+
+    private CompiledFile() {
+    }
+
+    public static Path of(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    // The source is hashed and, when the compiled file can't be used, parsed while mapped in memory, so it's never
+    // copied in the heap
+    public static BytecodeProgram load(Path source) throws IOException {
+        byte[] hash;
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Source larger than 2 GiB: " + source);
+            }
+            hash = Utils.sha256(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        Path path = of(source);
+        BytecodeProgram program = BytecodeFile.read(path, hash);
+        if (program == null) {
+            program = Program.compile(source, Optimizer.all()).getBytecode();
+            try {
+                BytecodeFile.write(path, program, hash);
+            } catch (IOException e) {
+                // The file only saves the parsing of the next run, the program can run without it
+            }
+        }
+        return program;
+    }
+}
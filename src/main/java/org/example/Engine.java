@@ -0,0 +1,15 @@
+package org.example;
+
+// Execution engines selectable from Main.execute
+public enum Engine {
+    // Reference tree walking interpreter over the parse tree
+    TREE,
+    // Interpreter over the resolved IR with slot indexed frames
+    SLOT,
+    // Register VM running the bytecode compiled from the resolved IR
+    VM,
+    // Program compiled to JVM bytecode in a hidden class, falls back to the VM when it can't be statically typed
+    JIT,
+    // Tree of nodes that specialize themselves on the types they see
+    NODES
+}
@@ -0,0 +1,117 @@
+package org.example;
+
+import org.example.interpreter.Memoizer;
+import org.example.interpreter.Meter;
+import org.example.interpreter.opt.Pass;
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.output.OutputSink;
+import org.example.interpreter.output.TeeSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Output and measures of a run of a program: the time of the compilation phases, the nodes removed by the optimizer,
+// the work done by the engine counted by a Meter and the time, CPU and memory used by the run. The compile measures
+// are the ones of the first compilation of the program, also when the run took it from the cache.
+public class ExecutionResult {
+
+    private final Engine engine;
+    // Everything written by the program
+    private final String output;
+    private final CompileTimes compileTimes;
+    // Nodes removed by each optimization pass of the compilation
+    private final Map<Pass, Integer> removed;
+    private final long calls;
+    private final long iterations;
+    private final int maxDepth;
+    private final long runNanos;
+    // CPU time and bytes allocated by the thread of the run, 0 when the JVM doesn't measure them
+    private final long cpuNanos;
+    private final long allocatedBytes;
+
+    public ExecutionResult(Engine engine, String output, CompileTimes compileTimes, Map<Pass, Integer> removed,
+                           long calls, long iterations, int maxDepth, long runNanos, long cpuNanos,
+                           long allocatedBytes) {
+        this.engine = engine;
+        this.output = output;
+        this.compileTimes = compileTimes;
+        this.removed = removed;
+        this.calls = calls;
+        this.iterations = iterations;
+        this.maxDepth = maxDepth;
+        this.runNanos = runNanos;
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    // Run the program on the current thread, measuring the run with the meter that also bounds it. The output is
+    // captured in the given sink and also written to out, if any, so after a panic the caller still finds the output
+    // written before it. The measures of the thread are read before and after the run, so they include only the
+    // work of this program.
+    static ExecutionResult measure(Program program, Engine engine, @Nullable OutputSink out, MemorySink captured,
+                                   int maxDepth, Meter meter, @Nullable Memoizer memoizer) {
+        OutputSink sink = out != null ? new TeeSink(out, captured) : captured;
+        long allocated = Meter.allocatedBytes();
+        long cpu = Meter.cpuNanos();
+        long start = System.nanoTime();
+        program.run(engine, sink, maxDepth, meter, memoizer);
+        long run = System.nanoTime() - start;
+        return new ExecutionResult(engine, captured.getOutput(), program.getCompileTimes(), program.getRemoved(),
+                meter.getCalls(), meter.getIterations(), meter.getMaxDepth(), run, Meter.cpuNanos() - cpu,
+                Meter.allocatedBytes() - allocated);
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public CompileTimes getCompileTimes() {
+        return compileTimes;
+    }
+
+    public Map<Pass, Integer> getRemoved() {
+        return removed;
+    }
+
+    // Calls of functions, including the tail calls
+    public long getCalls() {
+        return calls;
+    }
+
+    // Iterations of the bodies of all the loops
+    public long getIterations() {
+        return iterations;
+    }
+
+    // Deepest nesting of the calls, 0 when no function is called
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: compile %.3f ms (lex %.3f, parse %.3f, check %.3f, optimize %.3f), "
+                        + "run %.3f ms (cpu %.3f ms), %d calls, %d iterations, depth %d, %d bytes allocated",
+                engine, compileTimes.getTotalNanos() / 1e6, compileTimes.getLexNanos() / 1e6,
+                compileTimes.getParseNanos() / 1e6, compileTimes.getCheckNanos() / 1e6,
+                compileTimes.getOptimizeNanos() / 1e6, runNanos / 1e6, cpuNanos / 1e6, calls, iterations, maxDepth,
+                allocatedBytes);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.example.interpreter.antlr.ImpLexer;
+import org.example.interpreter.antlr.ImpParser;
+
+// Parser of the sources in two stages. The first one uses the SLL prediction, faster but unable to handle some
+// ambiguities, and gives up at the first error. Only when it fails the source is parsed again with the full LL
+// prediction and the default error recovery, so a valid program parses to the same tree and a wrong one reports
+// the same errors as with the LL parser alone.
+public final class FrontEnd {
+
+    // Prediction that produced the tree
+    public enum Stage {
+        SLL,
+        LL
+    }
+
+    private FrontEnd() {
+    }
+
+    public static ParseResult parse(String str) {
+        return parse(CharStreams.fromString(str));
+    }
+
+    public static ParseResult parse(CharStream input) {
+        ImpLexer lexer = new ImpLexer(input);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        // All the tokens are lexed before parsing, so the time of the lexer is measured on its own
+        long start = System.nanoTime();
+        tokens.fill();
+        long lexNanos = System.nanoTime() - start;
+        ImpParser parser = new ImpParser(tokens);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return new ParseResult(parser.prog(), Stage.SLL, lexNanos);
+        } catch (ParseCancellationException e) {
+            // The tokens are already lexed, only the parser starts again
+            tokens.seek(0);
+            parser.reset();
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            return new ParseResult(parser.prog(), Stage.LL, lexNanos);
+        }
+    }
+
+    // Parse with the LL prediction only, like before the two stages
+    public static ImpParser.ProgContext parseLL(String str) {
+        ImpParser parser = new ImpParser(new CommonTokenStream(new ImpLexer(CharStreams.fromString(str))));
+        return parser.prog();
+    }
+}
@@ -1,36 +1,247 @@
 package org.example;
 
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CodePointCharStream;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.example.interpreter.Interpreter;
-import org.example.interpreter.antlr.ImpLexer;
+import org.example.interpreter.CallStack;
+import org.example.interpreter.Memoizer;
+import org.example.interpreter.Meter;
+import org.example.interpreter.Profile;
+import org.example.interpreter.Profiler;
+import org.example.interpreter.Sampler;
 import org.example.interpreter.antlr.ImpParser;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.output.OutputSink;
+import org.example.interpreter.vm.Vm;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
 
 class Main {
+
+    // Depth of the non tail calls supported by default, the tail calls don't use the Java stack
+    public static final int DEFAULT_MAX_DEPTH = 100_000;
+    // Java stack used by a call of the program in the engine that uses the most, the tree one before it's compiled
+    static final long STACK_PER_CALL = 4 * 1024;
+    // Programs compiled by execute, the same source is compiled only once
+    private static final ProgramCache CACHE = new ProgramCache(64L << 20);
+
     public static void main(String[] args) throws URISyntaxException, IOException {
+        if (args.length > 0 && args[0].equals("profile")) {
+            profile(compile(program()));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("sample")) {
+            sample(compile(program()));
+            return;
+        }
+        // The engine can be selected by name with the first argument
+        Engine engine = args.length > 0 ? Engine.valueOf(args[0].toUpperCase(Locale.ROOT)) : Engine.TREE;
+        if (args.length > 1) {
+            // Batch of programs in a directory or matching a glob, optionally followed by the parallelism
+            int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            batch(BatchRunner.files(args[1]), engine, parallelism);
+            return;
+        }
+        OutputSink out = OutputSink.standard();
+        try {
+            execute(compile(program()), engine, DEFAULT_MAX_DEPTH, out);
+        } finally {
+            out.close();
+        }
+    }
+
+    // Compile the source file mapped in memory, so it's never loaded in the heap. A bad program is reported like
+    // a program failing while running.
+    private static Program compile(Path source) throws IOException {
+        try {
+            return Program.compile(source, Optimizer.all());
+        } catch (PanicException e) {
+            System.err.println(e.getReport());
+            throw e;
+        }
+    }
+
+    private static Path program() throws URISyntaxException {
         URL resource = Main.class.getResource("../../program.txt");
         assert resource != null;
-        Path path = Paths.get(resource.toURI());
-        String program = Files.readString(path);
-        execute(program);
+        return Paths.get(resource.toURI());
+    }
+
+    // Print the hot spots of the program on the standard error and write them in profile.json
+    private static void profile(Program program) throws IOException {
+        OutputSink out = OutputSink.standard();
+        Profile profile;
+        try {
+            profile = profile(program, DEFAULT_MAX_DEPTH, out);
+        } finally {
+            out.close();
+        }
+        System.err.print(profile);
+        Files.writeString(Paths.get("profile.json"), profile.toJson());
+    }
+
+    // Sample the call stack of the program every millisecond and write the stacks in profile.collapsed
+    private static void sample(Program program) throws IOException {
+        OutputSink out = OutputSink.standard();
+        Sampler sampler;
+        try {
+            sampler = sample(program, DEFAULT_MAX_DEPTH, out, 1_000_000);
+        } finally {
+            out.close();
+        }
+        sampler.write(Paths.get("profile.collapsed"));
+    }
+
+    private static void batch(List<Path> files, Engine engine, int parallelism) {
+        BatchReport report = new BatchRunner(engine, parallelism).run(files);
+        for (BatchResult result : report.getResults()) {
+            if (result.isFailed()) {
+                System.err.println(result.getPath() + ": " + result.getError());
+            }
+        }
+        System.out.println(report);
+    }
+
+    public static ExecutionResult execute(String str) {
+        return execute(str, Engine.TREE);
+    }
+
+    public static ExecutionResult execute(String str, Engine engine) {
+        return execute(str, engine, Optimizer.all());
+    }
+
+    public static ExecutionResult execute(String str, Engine engine, Optimizer optimizer) {
+        return execute(str, engine, optimizer, DEFAULT_MAX_DEPTH);
+    }
+
+    // The engines recurse on the Java stack for the calls of the program, so it runs in a thread with a stack large
+    // enough for the given depth of non tail calls. The VM keeps the calls on the heap and stops at the max depth.
+    public static ExecutionResult execute(String str, Engine engine, Optimizer optimizer, int maxDepth) {
+        OutputSink out = OutputSink.standard();
+        try {
+            return execute(str, engine, optimizer, maxDepth, out);
+        } finally {
+            out.close();
+        }
+    }
+
+    // The output is written to the given sink and flushed at the end of the run, the caller closes the sink. The
+    // compiled program is taken from the cache when the same source was already executed.
+    public static ExecutionResult execute(String str, Engine engine, Optimizer optimizer, int maxDepth,
+                                          OutputSink out) {
+        return execute(str, engine, optimizer, maxDepth, out, new Meter());
+    }
+
+    // Same as above, bounding the run with the fuel and the deadline of the meter. The meter can be cancelled from
+    // another thread, the program then panics at its next loop iteration or call.
+    public static ExecutionResult execute(String str, Engine engine, Optimizer optimizer, int maxDepth,
+                                          OutputSink out, Meter meter) {
+        return execute(str, engine, optimizer, maxDepth, out, meter, null);
+    }
+
+    // Same as above, caching the results of the pure functions in the memoizer on the tree engine
+    public static ExecutionResult execute(String str, Engine engine, Optimizer optimizer, int maxDepth,
+                                          OutputSink out, Meter meter, @Nullable Memoizer memoizer) {
+        ExecutionResult[] result = new ExecutionResult[1];
+        inThread(engine, maxDepth, () -> result[0] = ExecutionResult.measure(CACHE.get(str, optimizer), engine,
+                out, new MemorySink(), maxDepth, meter, memoizer));
+        return result[0];
+    }
+
+    // Run the program on the tree engine with a profiler, returning the measures of its functions, loops and
+    // conditionals
+    public static Profile profile(String str, int maxDepth, OutputSink out) {
+        return profile(CACHE.get(str, Optimizer.all()), maxDepth, out);
+    }
+
+    public static Profile profile(Program program, int maxDepth, OutputSink out) {
+        Profiler profiler = new Profiler();
+        inThread(Engine.TREE, maxDepth, () -> program.profile(out, maxDepth, profiler, null));
+        return profiler.getProfile();
+    }
+
+    // Run the program on the tree engine sampling its call stack at the given interval, returning the sampler
+    // with the samples of every stack
+    public static Sampler sample(String str, int maxDepth, OutputSink out, long intervalNanos) {
+        return sample(CACHE.get(str, Optimizer.all()), maxDepth, out, intervalNanos);
+    }
+
+    public static Sampler sample(Program program, int maxDepth, OutputSink out, long intervalNanos) {
+        CallStack stack = new CallStack();
+        Sampler sampler = new Sampler(stack, intervalNanos);
+        inThread(Engine.TREE, maxDepth, () -> {
+            sampler.start();
+            try {
+                program.profile(out, maxDepth, null, stack);
+            } finally {
+                sampler.stop();
+            }
+        });
+        return sampler;
+    }
+
+    public static CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    // Run a program compiled in advance, many threads can execute the same program at the same time
+    public static ExecutionResult execute(Program program, Engine engine, int maxDepth, OutputSink out) {
+        ExecutionResult[] result = new ExecutionResult[1];
+        inThread(engine, maxDepth, () -> result[0] = ExecutionResult.measure(program, engine, out,
+                new MemorySink(), maxDepth, new Meter(), null));
+        return result[0];
+    }
+
+    // Run the program of a source file on the VM, from its compiled file when it's up to date
+    public static void executeFile(Path source, int maxDepth, OutputSink out) {
+        inThread(Engine.VM, maxDepth, () -> {
+            try {
+                new Vm(CompiledFile.load(source), maxDepth, out).run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void inThread(Engine engine, int maxDepth, Runnable run) {
+        long stack = engine == Engine.VM ? 0 : maxDepth * STACK_PER_CALL;
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                run.run();
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "havefun", stack);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        if (failure[0] instanceof PanicException) {
+            System.err.println(((PanicException) failure[0]).getReport());
+            throw (PanicException) failure[0];
+        } else if (failure[0] instanceof RuntimeException) {
+            throw (RuntimeException) failure[0];
+        } else if (failure[0] instanceof Error) {
+            throw (Error) failure[0];
+        } else if (failure[0] != null) {
+            throw new RuntimeException(failure[0]);
+        }
     }
 
-    public static void execute(String str) {
-        CodePointCharStream stream = CharStreams.fromString(str);
-        ImpLexer lexer = new ImpLexer(stream);
-        CommonTokenStream token = new CommonTokenStream(lexer);
-        ImpParser parser = new ImpParser(token);
-        ParseTree tree = parser.prog();
-        Interpreter interpreter = new Interpreter();
-        interpreter.visit(tree);
+    // Parse with the SLL prediction first, falling back to LL when it fails
+    public static ImpParser.ProgContext parse(String str) {
+        return FrontEnd.parse(str).getTree();
     }
-}
\ No newline at end of file
+}
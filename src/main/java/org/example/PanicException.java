@@ -0,0 +1,27 @@
+package org.example;
+
+// Failure of a program, raised by Utils.panic with the message and the position in the source
+public class PanicException extends RuntimeException {
+
+    private final int line;
+    private final int column;
+
+    public PanicException(String message, int line, int column) {
+        super(message);
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    // The message followed by the position, as printed on the standard error
+    public String getReport() {
+        return getMessage() + "\n@" + line + ":" + column;
+    }
+}
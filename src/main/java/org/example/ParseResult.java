@@ -0,0 +1,33 @@
+package org.example;
+
+import org.example.interpreter.antlr.ImpParser;
+
+// Parse tree of a source, the stage of the FrontEnd that produced it and the time spent lexing the source
+public class ParseResult {
+
+    private final ImpParser.ProgContext tree;
+    private final FrontEnd.Stage stage;
+    private final long lexNanos;
+
+    public ParseResult(ImpParser.ProgContext tree, FrontEnd.Stage stage) {
+        this(tree, stage, 0);
+    }
+
+    public ParseResult(ImpParser.ProgContext tree, FrontEnd.Stage stage, long lexNanos) {
+        this.tree = tree;
+        this.stage = stage;
+        this.lexNanos = lexNanos;
+    }
+
+    public ImpParser.ProgContext getTree() {
+        return tree;
+    }
+
+    public FrontEnd.Stage getStage() {
+        return stage;
+    }
+
+    public long getLexNanos() {
+        return lexNanos;
+    }
+}
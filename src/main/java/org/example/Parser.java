@@ -0,0 +1,9 @@
+package org.example;
+
+// Front ends turning a source into the IR
+public enum Parser {
+    // ANTLR parse tree, resolved to the IR
+    ANTLR,
+    // Hand written lexer and parser building the IR directly, the parse tree is built only if the tree engine runs
+    DIRECT
+}
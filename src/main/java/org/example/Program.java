@@ -0,0 +1,272 @@
+package org.example;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.example.interpreter.CallStack;
+import org.example.interpreter.Fun;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.Memoizer;
+import org.example.interpreter.Meter;
+import org.example.interpreter.NodeInterpreter;
+import org.example.interpreter.Profiler;
+import org.example.interpreter.SlotInterpreter;
+import org.example.interpreter.antlr.ImpParser;
+import org.example.interpreter.events.PhaseEvent;
+import org.example.interpreter.ir.Checker;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.ir.Typing;
+import org.example.interpreter.jit.JitCompiler;
+import org.example.interpreter.jit.JitProgram;
+import org.example.interpreter.jit.JitRuntime;
+import org.example.interpreter.opt.NodeCounter;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.opt.Pass;
+import org.example.interpreter.output.OutputSink;
+import org.example.interpreter.parser.IrParser;
+import org.example.interpreter.vm.BytecodeProgram;
+import org.example.interpreter.vm.Compiler;
+import org.example.interpreter.vm.Vm;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// A parsed, checked and optimized program. It's never modified once compiled, so it can be shared and run by many
+// threads at the same time: every run creates its own engine with the memory, frames and output of that execution.
+// The bytecode and the JIT class are compiled the first time an engine needs them.
+public class Program {
+
+    // Estimated bytes retained for every character of the source, token of the parse tree and node of the IR
+    private static final int CHAR_BYTES = 2;
+    private static final int TOKEN_BYTES = 160;
+    private static final int NODE_BYTES = 48;
+
+    // Source of the parse tree, kept to build the tree when it's needed
+    private final Supplier<CharStream> source;
+    // Parse tree and functions of the tree interpreter, built on first use by a program parsed without them
+    @Nullable
+    private ParseResult parsed;
+    @Nullable
+    private Map<String, Fun> functions;
+    // Optimized IR run by the other engines
+    private final IrProgram ir;
+    private final Typing typing;
+    // Approximate size in bytes of the trees, used to bound the ProgramCache
+    private final long weight;
+    @Nullable
+    private BytecodeProgram bytecode;
+    @Nullable
+    private JitProgram jit;
+    private boolean jitCompiled;
+    private final CompileTimes compileTimes;
+    // Nodes removed by each enabled optimization pass
+    private final Map<Pass, Integer> removed;
+
+    private Program(Supplier<CharStream> source, long length, @Nullable ParseResult parsed, IrProgram ir,
+                    Typing typing, CompileTimes compileTimes, Map<Pass, Integer> removed) {
+        this.source = source;
+        this.compileTimes = compileTimes;
+        this.removed = removed;
+        this.parsed = parsed;
+        this.ir = ir;
+        this.typing = typing;
+        ImpParser.ProgContext tree = parsed != null ? parsed.getTree() : null;
+        int tokens = tree != null && tree.stop != null ? tree.stop.getTokenIndex() + 1 : 0;
+        this.weight = length * CHAR_BYTES + (long) tokens * TOKEN_BYTES
+                + (long) NodeCounter.count(ir) * NODE_BYTES;
+    }
+
+    // Check the types of the parsed program, then optimize it. The optimizer records the removed nodes, so every
+    // compilation runs its own copy and keeps the counts in the program: the given one can be shared by threads.
+    private static Program checked(Supplier<CharStream> source, long length, @Nullable ParseResult parsed,
+                                   IrProgram program, Optimizer optimizer, long lexNanos, long parseNanos) {
+        long start = System.nanoTime();
+        PhaseEvent event = PhaseEvent.start("check");
+        Typing typing = Checker.check(program);
+        event.commit();
+        long checked = System.nanoTime();
+        event = PhaseEvent.start("optimize");
+        Optimizer own = new Optimizer(optimizer.getPasses());
+        IrProgram optimized = own.optimize(program);
+        event.commit();
+        CompileTimes times = new CompileTimes(lexNanos, parseNanos, checked - start, System.nanoTime() - checked);
+        return new Program(source, length, parsed, optimized, typing, times, own.getRemoved());
+    }
+
+    // The program is checked before any execution, so a bad program panics here without running. The engines on
+    // the IR run the optimized program, the tree one is the reference and runs the parse tree as written.
+    public static Program compile(String str, Optimizer optimizer) {
+        long start = System.nanoTime();
+        PhaseEvent event = PhaseEvent.start("parse");
+        ParseResult parsed = FrontEnd.parse(str);
+        event.commit();
+        event = PhaseEvent.start("resolve");
+        IrProgram program = Resolver.resolve(parsed.getTree());
+        event.commit();
+        long lex = parsed.getLexNanos();
+        return checked(() -> CharStreams.fromString(str), str.length(), parsed, program, optimizer, lex,
+                System.nanoTime() - start - lex);
+    }
+
+    public static Program compile(String str) {
+        return compile(str, Optimizer.all());
+    }
+
+    // The direct parser reports the same errors at the same positions of the ANTLR one, except for the syntax
+    // errors that stop at the first wrong token
+    public static Program compile(String str, Optimizer optimizer, Parser parser) {
+        if (parser == Parser.ANTLR) {
+            return compile(str, optimizer);
+        }
+        long start = System.nanoTime();
+        PhaseEvent event = PhaseEvent.start("parse");
+        IrProgram program = IrParser.parse(str);
+        event.commit();
+        return checked(() -> CharStreams.fromString(str), str.length(), null, program, optimizer, 0,
+                System.nanoTime() - start);
+    }
+
+    // Compile a source file with the direct parser lexing the file mapped in memory, so huge sources are never
+    // loaded in the heap. The source counts nothing in the weight and is read again only for the tree engine.
+    public static Program compile(Path path, Optimizer optimizer) throws IOException {
+        long start = System.nanoTime();
+        PhaseEvent event = PhaseEvent.start("parse");
+        IrProgram program = IrParser.parse(path);
+        event.commit();
+        long parse = System.nanoTime() - start;
+        return checked(() -> {
+            try {
+                return CharStreams.fromPath(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, 0, null, program, optimizer, 0, parse);
+    }
+
+    public synchronized ImpParser.ProgContext getTree() {
+        if (parsed == null) {
+            parsed = FrontEnd.parse(source.get());
+        }
+        return parsed.getTree();
+    }
+
+    // Prediction used by the ANTLR parser, null when the tree was never built
+    @Nullable
+    public synchronized FrontEnd.Stage getStage() {
+        return parsed != null ? parsed.getStage() : null;
+    }
+
+    private synchronized Map<String, Fun> getFunctions() {
+        if (functions == null) {
+            Map<String, Fun> declared = new HashMap<>();
+            for (ImpParser.FunContext fun : getTree().fun()) {
+                declared.put(fun.ID(0).getText(), new Fun(fun));
+            }
+            functions = Collections.unmodifiableMap(declared);
+        }
+        return functions;
+    }
+
+    public IrProgram getIr() {
+        return ir;
+    }
+
+    public Typing getTyping() {
+        return typing;
+    }
+
+    // Time spent compiling the program, before any run
+    public CompileTimes getCompileTimes() {
+        return compileTimes;
+    }
+
+    // Number of nodes removed by each enabled pass when the program was optimized
+    public Map<Pass, Integer> getRemoved() {
+        return removed;
+    }
+
+    public int getRemoved(Pass pass) {
+        return removed.getOrDefault(pass, 0);
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public synchronized BytecodeProgram getBytecode() {
+        if (bytecode == null) {
+            bytecode = Compiler.compile(ir, typing);
+        }
+        return bytecode;
+    }
+
+    // Null when the program can't be compiled to JVM bytecode
+    @Nullable
+    public synchronized JitProgram getJit() {
+        if (!jitCompiled) {
+            jit = JitCompiler.compile(ir, typing);
+            jitCompiled = true;
+        }
+        return jit;
+    }
+
+    // Run the program on the current thread, the output is flushed to the sink at the end of the run. Every engine
+    // panics for stack overflow on a call nested deeper than the max depth, the engines other than the VM use the
+    // Java stack for the non tail calls, so the thread needs a stack deep enough for it.
+    public void run(Engine engine, OutputSink out, int maxDepth) {
+        run(engine, out, maxDepth, new Meter());
+    }
+
+    // Same as above, counting the calls and the loop iterations of the run with the meter
+    public void run(Engine engine, OutputSink out, int maxDepth, Meter meter) {
+        run(engine, out, maxDepth, meter, null);
+    }
+
+    // Same as above, caching the results of the pure functions in the memoizer. Only the tree engine memoizes, the
+    // memoizer keeps the results of a single program.
+    public void run(Engine engine, OutputSink out, int maxDepth, Meter meter, @Nullable Memoizer memoizer) {
+        if (memoizer != null && engine != Engine.TREE) {
+            throw new IllegalArgumentException("Memoization is supported only by the tree engine: " + engine);
+        }
+        meter.limitDepth(maxDepth);
+        PhaseEvent event = PhaseEvent.start("run");
+        event.engine = engine.name();
+        try {
+            execute(engine, out, maxDepth, meter, memoizer);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void execute(Engine engine, OutputSink out, int maxDepth, Meter meter, @Nullable Memoizer memoizer) {
+        switch (engine) {
+            case TREE -> new Interpreter(getFunctions(), out, memoizer, null, null, meter).visit(getTree());
+            case SLOT -> new SlotInterpreter(ir, typing, out, meter).run();
+            case VM -> new Vm(getBytecode(), maxDepth, out, meter).run();
+            case JIT -> {
+                JitProgram compiled = getJit();
+                if (compiled != null) {
+                    compiled.run(new JitRuntime(out, meter));
+                } else {
+                    new Vm(getBytecode(), maxDepth, out, meter).run();
+                }
+            }
+            // The nodes rewrite themselves while running, so every execution builds its own tree
+            case NODES -> new NodeInterpreter(ir, typing, out, meter).run();
+        }
+    }
+
+    // Run the program on the tree engine measuring its functions, loops and conditionals with the profiler, and
+    // keeping its call stack in the given one for a sampler
+    public void profile(OutputSink out, int maxDepth, @Nullable Profiler profiler, @Nullable CallStack callStack) {
+        Meter meter = new Meter();
+        meter.limitDepth(maxDepth);
+        new Interpreter(getFunctions(), out, null, profiler, callStack, meter).visit(getTree());
+    }
+}
@@ -0,0 +1,135 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Compiled programs keyed by the SHA-256 of their source and the enabled optimization passes, so the same text is
+// parsed, checked and optimized only once. The cache is bounded by the estimated size of the programs it holds and
+// evicts the least recently used ones. It can be shared by many threads: the programs are immutable, and the threads
+// asking for a program being compiled wait for it instead of compiling it again. Programs that panic are not kept.
+public class ProgramCache {
+
+    private final long maxWeight;
+    // Compiled programs by key in access order, the least recently used first
+    private final LinkedHashMap<String, Program> programs = new LinkedHashMap<>(16, 0.75f, true);
+    // Programs being compiled by key
+    private final Map<String, CompletableFuture<Program>> loading = new HashMap<>();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long loadFailures;
+    private long loadNanos;
+    private long evictions;
+
+    public ProgramCache(long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Max weight must be positive: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    public Program get(String source, Optimizer optimizer) {
+        String key = key(source, optimizer);
+        CompletableFuture<Program> future;
+        boolean load = false;
+        synchronized (this) {
+            Program program = programs.get(key);
+            if (program != null) {
+                hits++;
+                return program;
+            }
+            misses++;
+            future = loading.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+                load = true;
+            }
+        }
+        if (load) {
+            return load(key, source, optimizer, future);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    public Program get(String source) {
+        return get(source, Optimizer.all());
+    }
+
+    private Program load(String key, String source, Optimizer optimizer, CompletableFuture<Program> future) {
+        long start = System.nanoTime();
+        Program program;
+        try {
+            program = Program.compile(source, optimizer);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key);
+                loads++;
+                loadFailures++;
+                loadNanos += System.nanoTime() - start;
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            loading.remove(key);
+            loads++;
+            loadNanos += System.nanoTime() - start;
+            // A program heavier than the whole cache is returned without being kept
+            if (program.getWeight() <= maxWeight) {
+                programs.put(key, program);
+                weight += program.getWeight();
+                evict();
+            }
+        }
+        future.complete(program);
+        return program;
+    }
+
+    private void evict() {
+        Iterator<Program> iterator = programs.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getWeight();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        programs.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, loads, loadFailures, loadNanos, evictions, programs.size(), weight);
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new RuntimeException(cause);
+    }
+
+    private static String key(String source, Optimizer optimizer) {
+        StringBuilder key = new StringBuilder();
+        for (byte b : Utils.sha256(source.getBytes(StandardCharsets.UTF_8))) {
+            key.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.append(optimizer.getPasses()).toString();
+    }
+}
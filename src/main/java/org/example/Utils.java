@@ -1,18 +1,49 @@
 package org.example;
 
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.example.interpreter.events.PanicEvent;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class Utils {
 
     public static void panic(ParserRuleContext ctx, String err) {
-        System.err.println(err);
-        System.err.println("@" + ctx.start.getLine() + ":" + ctx.start.getCharPositionInLine());
         /* Debug
         System.err.println(">>>>>>>>>>>>>>>>>>>>>>>>");
         System.err.println(ctx.getText());
         System.err.println("<<<<<<<<<<<<<<<<<<<<<<<<");
          */
+        panic(ctx.start.getLine(), ctx.start.getCharPositionInLine(), err);
+    }
+
+    // Same as the above, for the engines that don't keep the parse tree around. The failure is reported on the
+    // standard error by Main, so the programs run in a batch keep their errors separated.
+    public static void panic(int line, int column, String err) {
+        PanicEvent event = new PanicEvent();
+        if (event.isEnabled()) {
+            event.message = err;
+            event.line = line;
+            event.column = column;
+            event.commit();
+        }
+        throw new PanicException(err, line, column);
+    }
+
+    // SHA-256 of the bytes, used to recognize a source that was already compiled
+    public static byte[] sha256(byte[] bytes) {
+        return sha256(ByteBuffer.wrap(bytes));
+    }
 
-        throw new RuntimeException();
+    // Same as above, for the remaining bytes of a buffer like a file mapped in memory
+    public static byte[] sha256(ByteBuffer bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,73 @@
+package org.example.interpreter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+// Logical call stack of the program run by the tree interpreter: the functions being called, each with the line of
+// the call that started it. The interpreter thread writes it with release stores, plain stores on most hardware,
+// and a sampler can read it at any time from another thread: a sample can miss the last push or pop, but it's
+// never torn by the growth of the arrays.
+public class CallStack {
+
+    private static final VarHandle DEPTH;
+    private static final VarHandle FUNCTIONS;
+    private static final VarHandle LINES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            DEPTH = lookup.findVarHandle(CallStack.class, "depth", int.class);
+            FUNCTIONS = lookup.findVarHandle(CallStack.class, "functions", Fun[].class);
+            LINES = lookup.findVarHandle(CallStack.class, "lines", int[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Fun[] functions = new Fun[64];
+    // Line of the call of every function, in the function below it
+    private int[] lines = new int[64];
+    private int depth;
+
+    // A call of the function at the given line starts
+    void push(Fun fun, int line) {
+        int depth = this.depth;
+        if (depth == functions.length) {
+            // The new arrays are published before the depth that needs them
+            LINES.setRelease(this, Arrays.copyOf(lines, depth * 2));
+            FUNCTIONS.setRelease(this, Arrays.copyOf(functions, depth * 2));
+        }
+        functions[depth] = fun;
+        lines[depth] = line;
+        DEPTH.setRelease(this, depth + 1);
+    }
+
+    // The running function continues with a tail call of another one
+    void replace(Fun fun) {
+        functions[depth - 1] = fun;
+    }
+
+    void pop() {
+        DEPTH.setOpaque(this, depth - 1);
+    }
+
+    // Frames of the stack from the outermost, in the collapsed format of the flame graph tools: the top level
+    // program is main, every frame is followed by the line of the call of the next one, as in main:7;fib:3;fib
+    public String collapse() {
+        int depth = (int) DEPTH.getAcquire(this);
+        Fun[] functions = (Fun[]) FUNCTIONS.getAcquire(this);
+        int[] lines = (int[]) LINES.getAcquire(this);
+        depth = Math.min(depth, Math.min(functions.length, lines.length));
+        StringBuilder out = new StringBuilder("main");
+        for (int i = 0; i < depth; i++) {
+            Fun fun = functions[i];
+            out.append(':').append(lines[i]).append(';').append(fun != null ? fun.getName() : "?");
+        }
+        return out.toString();
+    }
+
+    public int getDepth() {
+        return (int) DEPTH.getOpaque(this);
+    }
+}
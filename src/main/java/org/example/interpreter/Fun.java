@@ -6,37 +6,89 @@ import org.example.Utils;
 import org.example.interpreter.antlr.ImpParser;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class Fun {
 
-    // Set of the function arguments with respect for the order
-    private final LinkedHashSet<String> parameters;
+    private final String name;
+    // Position of the declaration
+    private final int line;
+    private final int column;
+    // List of the function arguments with respect for the order
+    private final List<String> parameters;
     // The body of the function which could be missing
     @Nullable
     private final ImpParser.ComContext body;
     // The expression for the function return value
     private final ImpParser.ExpContext ret;
+    // Assignments of a call to the returned variable that are the last command of the body, compared by identity
+    private final Set<ImpParser.AssignContext> tailCalls;
 
     public Fun(ImpParser.FunContext fun) {
         // Get the list of ID form the context and exclude the first one since it's the function name.
         List<TerminalNode> ids = fun.ID();
-        this.parameters = new LinkedHashSet<>();
+        this.name = ids.get(0).getText();
+        this.line = fun.start.getLine();
+        this.column = fun.start.getCharPositionInLine();
+        LinkedHashSet<String> parameters = new LinkedHashSet<>();
         List<String> args = ids.subList(1, ids.size())
                 .stream()
                 .map(ParseTree::getText)
                 .collect(Collectors.toList());
         // Insert the names of the parameters, panic if it's already present
         for (String arg : args) {
-            if (!this.parameters.add(arg)) {
+            if (!parameters.add(arg)) {
                 Utils.panic(fun, "Parameter name " + arg + "clashes with previous parameters");
             }
         }
+        // Immutable copy so it can be shared with every call
+        this.parameters = List.copyOf(parameters);
         this.body = fun.com();
         this.ret = fun.exp();
+        this.tailCalls = Collections.newSetFromMap(new IdentityHashMap<>());
+        ImpParser.ExpContext returned = unwrap(ret);
+        if (body != null && returned instanceof ImpParser.IdContext) {
+            collectTailCalls(body, returned.getText());
+        }
+    }
+
+    private static ImpParser.ExpContext unwrap(ImpParser.ExpContext exp) {
+        while (exp instanceof ImpParser.ParExpContext) {
+            exp = ((ImpParser.ParExpContext) exp).exp();
+        }
+        return exp;
+    }
+
+    // The calls are in tail position when the value of the call is the value returned
+    private void collectTailCalls(ImpParser.ComContext com, String returned) {
+        if (com instanceof ImpParser.AssignContext) {
+            ImpParser.AssignContext assign = (ImpParser.AssignContext) com;
+            if (assign.ID().getText().equals(returned) && unwrap(assign.exp()) instanceof ImpParser.CallContext) {
+                tailCalls.add(assign);
+            }
+        } else if (com instanceof ImpParser.SeqContext) {
+            collectTailCalls(((ImpParser.SeqContext) com).com(1), returned);
+        } else if (com instanceof ImpParser.IfContext) {
+            collectTailCalls(((ImpParser.IfContext) com).com(0), returned);
+            collectTailCalls(((ImpParser.IfContext) com).com(1), returned);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
     }
 
     public ImpParser.@Nullable ComContext getBody() {
@@ -48,7 +100,11 @@ public class Fun {
     }
 
     public List<String> getParameters() {
-        return new ArrayList<>(parameters);
+        return parameters;
+    }
+
+    public Set<ImpParser.AssignContext> getTailCalls() {
+        return tailCalls;
     }
 
 }
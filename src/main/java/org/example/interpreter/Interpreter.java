@@ -1,94 +1,186 @@
 package org.example.interpreter;
 
-
+import org.antlr.v4.runtime.Token;
 import org.example.Utils;
 import org.example.interpreter.antlr.ImpBaseVisitor;
 import org.example.interpreter.antlr.ImpParser;
+import org.example.interpreter.events.CallEvent;
+import org.example.interpreter.events.OutEvent;
+import org.example.interpreter.output.OutputSink;
 import org.example.interpreter.values.*;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
 
-    // Function map, indexed by the name of the function
-    private final HashMap<String, Fun> functions;
-    // Program output to file, used to test output
-    private final BufferedWriter out;
+    // Function map, indexed by the name of the function. It's only read during the execution, so a map declared in
+    // advance can be shared by the interpreters running the same program on different threads.
+    private final Map<String, Fun> functions;
+    // The functions were given to the constructor, the definitions of the program are not visited again
+    private final boolean declared;
+    // Program output, flushed at the end of the program
+    private final OutputSink out;
     // Memory map, indexed by the name of the Variable
     private HashMap<String, AbstractValue<?>> memory;
+    // Value of the natural literals, so they are parsed only once
+    private final IdentityHashMap<ImpParser.NatContext, IntegerValue> literals;
+    // Assignments in tail position of all the functions
+    private final Set<ImpParser.AssignContext> tailCalls;
+    // Cache of the results of the pure functions, null when the memoization is disabled
+    @Nullable
+    private final Memoizer memoizer;
+    // Measures of the functions, loops and conditionals, null when the profiling is disabled
+    @Nullable
+    private final Profiler profiler;
+    // Functions being called, for a sampler on another thread, null when it's not tracked
+    @Nullable
+    private final CallStack callStack;
+    // Calls and loop iterations of the run
+    private final Meter meter;
+
+    public Interpreter(OutputSink out, @Nullable Memoizer memoizer) {
+        this(new HashMap<>(), false, out, memoizer, null, null, new Meter());
+    }
+
+    // Interpreter of a program whose functions are already declared, the map is never modified
+    public Interpreter(Map<String, Fun> functions, OutputSink out, @Nullable Memoizer memoizer) {
+        this(functions, true, out, memoizer, null, null, new Meter());
+    }
+
+    // Interpreter profiling the run with the given profiler, or keeping its call stack for a sampler, and counting
+    // its work with the meter
+    public Interpreter(Map<String, Fun> functions, OutputSink out, @Nullable Memoizer memoizer,
+                       @Nullable Profiler profiler, @Nullable CallStack callStack, Meter meter) {
+        this(functions, true, out, memoizer, profiler, callStack, meter);
+    }
 
-    public Interpreter() {
+    private Interpreter(Map<String, Fun> functions, boolean declared, OutputSink out, @Nullable Memoizer memoizer,
+                        @Nullable Profiler profiler, @Nullable CallStack callStack, Meter meter) {
+        this.out = out;
+        this.memoizer = memoizer;
+        this.profiler = profiler;
+        this.callStack = callStack;
+        this.meter = meter;
         // Initialize all the proprieties
+        this.functions = functions;
+        this.declared = declared;
         memory = new HashMap<>();
-        functions = new HashMap<>();
-        try {
-            this.out = Files.newBufferedWriter(
-                    Paths.get("out.txt"),
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.TRUNCATE_EXISTING,
-                    StandardOpenOption.WRITE);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        literals = new IdentityHashMap<>();
+        tailCalls = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Fun fun : functions.values()) {
+            tailCalls.addAll(fun.getTailCalls());
         }
     }
 
-    // Convert expression to Integer, panics if expression doesn't return an IntegerValue
-    private Integer visitNatExp(ImpParser.ExpContext ctx) {
-        Integer value = null;
-        try {
-            value = ((IntegerValue) visit(ctx)).getValue();
-        } catch (ClassCastException e) {
+    // Convert expression to int, panics if expression doesn't return an IntegerValue. The arithmetic operators are
+    // computed directly on ints, so the intermediate results of an expression are never boxed in a value.
+    private int visitNatExp(ImpParser.ExpContext ctx) {
+        if (ctx instanceof ImpParser.PlusMinusContext) {
+            return plusMinus((ImpParser.PlusMinusContext) ctx);
+        } else if (ctx instanceof ImpParser.DivMulModContext) {
+            return divMulMod((ImpParser.DivMulModContext) ctx);
+        } else if (ctx instanceof ImpParser.PowContext) {
+            return pow((ImpParser.PowContext) ctx);
+        } else if (ctx instanceof ImpParser.NatContext) {
+            return visitNat((ImpParser.NatContext) ctx).intValue();
+        }
+
+        AbstractReturnValue value = visit(ctx);
+        if (!(value instanceof IntegerValue)) {
             Utils.panic(ctx, "Type mismatch, natural expression expected.");
         }
-        assert value != null;
-        return value;
+        return ((IntegerValue) value).intValue();
     }
 
-    // Convert expression to Boolean, panics if expression doesn't return an BoolValue
-    private Boolean visitBoolExp(ImpParser.ExpContext ctx) {
-        Boolean value = null;
-        try {
-            value = ((BoolValue) visit(ctx)).getValue();
-        } catch (ClassCastException e) {
+    // Convert expression to boolean, panics if expression doesn't return an BoolValue. Like for the naturals the
+    // boolean operators are computed directly.
+    private boolean visitBoolExp(ImpParser.ExpContext ctx) {
+        if (ctx instanceof ImpParser.CmpExpContext) {
+            return cmpExp((ImpParser.CmpExpContext) ctx);
+        } else if (ctx instanceof ImpParser.LogicExpContext) {
+            return logicExp((ImpParser.LogicExpContext) ctx);
+        } else if (ctx instanceof ImpParser.NotContext) {
+            return !visitBoolExp(((ImpParser.NotContext) ctx).exp());
+        }
+
+        AbstractReturnValue value = visit(ctx);
+        if (!(value instanceof BoolValue)) {
             Utils.panic(ctx, "Type mismatch, boolean expression expected.");
         }
-        assert value != null;
-        return value;
+        return ((BoolValue) value).booleanValue();
     }
 
     @Override
     public VoidValue visitProg(ImpParser.ProgContext ctx) {
-        for (ImpParser.FunContext fun : ctx.fun()) {
-            visitFun(fun);
+        if (!declared) {
+            for (ImpParser.FunContext fun : ctx.fun()) {
+                visitFun(fun);
+            }
+        }
+        if (memoizer != null) {
+            memoizer.analyze(functions);
+        }
+        try {
+            return (VoidValue) visit(ctx.com());
+        } finally {
+            out.flush();
         }
-        return (VoidValue) visit(ctx.com());
     }
 
     @Override
     public VoidValue visitIf(ImpParser.IfContext ctx) {
+        if (profiler != null) {
+            return profiledIf(ctx, profiler);
+        }
         return (VoidValue) (visitBoolExp(ctx.exp())
                 ? visit(ctx.com(0))
                 : visit(ctx.com(1)));
     }
 
+    private VoidValue profiledIf(ImpParser.IfContext ctx, Profiler profiler) {
+        profiler.enter(ctx, Profiler.Kind.IF);
+        try {
+            if (visitBoolExp(ctx.exp())) {
+                profiler.iteration();
+                return (VoidValue) visit(ctx.com(0));
+            }
+            return (VoidValue) visit(ctx.com(1));
+        } finally {
+            // A tail call in a branch unwinds through the if
+            profiler.exit();
+        }
+    }
+
     @Override
     public VoidValue visitAssign(ImpParser.AssignContext ctx) {
+        if (tailCalls.contains(ctx)) {
+            // The call is the last thing the function does, it continues in the call that is running the function
+            ImpParser.ExpContext exp = ctx.exp();
+            while (exp instanceof ImpParser.ParExpContext) {
+                exp = ((ImpParser.ParExpContext) exp).exp();
+            }
+            ImpParser.CallContext call = (ImpParser.CallContext) exp;
+            Fun fun = callee(call);
+            HashMap<String, AbstractValue<?>> newMemory = memory(fun, arguments(call));
+            meter.tailCall(call.start.getLine(), call.start.getCharPositionInLine());
+            throw new TailCall(fun, newMemory);
+        }
         String id = ctx.ID().getText();
         AbstractValue<?> value = (AbstractValue<?>) visit(ctx.exp());
         memory.put(id, value);
-        return new VoidValue();
+        return VoidValue.VOID;
     }
 
     @Override
     public VoidValue visitSkip(ImpParser.SkipContext ctx) {
-        return new VoidValue();
+        return VoidValue.VOID;
     }
 
     @Override
@@ -99,34 +191,64 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
 
     @Override
     public VoidValue visitWhile(ImpParser.WhileContext ctx) {
+        if (profiler != null) {
+            return profiledWhile(ctx, profiler);
+        }
+        int line = ctx.start.getLine();
+        int column = ctx.start.getCharPositionInLine();
         while (visitBoolExp(ctx.exp())) {
+            meter.iteration(line, column);
             visit(ctx.com());
         }
-        return new VoidValue();
+        return VoidValue.VOID;
+    }
+
+    private VoidValue profiledWhile(ImpParser.WhileContext ctx, Profiler profiler) {
+        profiler.enter(ctx, Profiler.Kind.WHILE);
+        try {
+            while (visitBoolExp(ctx.exp())) {
+                meter.iteration(ctx.start.getLine(), ctx.start.getCharPositionInLine());
+                profiler.iteration();
+                visit(ctx.com());
+            }
+        } finally {
+            profiler.exit();
+        }
+        return VoidValue.VOID;
     }
 
     @Override
     public VoidValue visitOut(ImpParser.OutContext ctx) {
-        String str = visit(ctx.exp()).toString();
-        System.out.println(str);
-        try {
-            out.write(str);
-            out.newLine();
-            out.flush();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        AbstractReturnValue value = visit(ctx.exp());
+        if (value instanceof BoolValue) {
+            out.writeBool(((BoolValue) value).booleanValue());
+        } else {
+            out.writeInt(((IntegerValue) value).intValue());
         }
-        return new VoidValue();
+        OutEvent event = new OutEvent();
+        if (event.isEnabled()) {
+            event.value = value.toString();
+            event.line = ctx.start.getLine();
+            event.commit();
+        }
+        return VoidValue.VOID;
     }
 
     @Override
     public IntegerValue visitNat(ImpParser.NatContext ctx) {
-        return new IntegerValue(Integer.parseInt(ctx.NAT().getText()));
+        IntegerValue value = literals.get(ctx);
+        if (value == null) {
+            value = IntegerValue.of(Integer.parseInt(ctx.NAT().getText()));
+            literals.put(ctx, value);
+        }
+        return value;
     }
 
     @Override
     public BoolValue visitBool(ImpParser.BoolContext ctx) {
-        return new BoolValue(Boolean.parseBoolean(ctx.BOOL().getText()));
+        // "true" and "false" have different lengths, so there is no need to copy the text of the token
+        Token token = ctx.BOOL().getSymbol();
+        return BoolValue.of(token.getStopIndex() - token.getStartIndex() == 3);
     }
 
     @Override
@@ -136,38 +258,50 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
 
     @Override
     public IntegerValue visitPow(ImpParser.PowContext ctx) {
+        return IntegerValue.of(pow(ctx));
+    }
+
+    private int pow(ImpParser.PowContext ctx) {
         int base = visitNatExp(ctx.exp(0));
         int exp = visitNatExp(ctx.exp(1));
 
-        return new IntegerValue((int) Math.pow(base, exp));
+        return (int) Math.pow(base, exp);
     }
 
     @Override
     public BoolValue visitNot(ImpParser.NotContext ctx) {
-        return new BoolValue(!visitBoolExp(ctx.exp()));
+        return BoolValue.of(!visitBoolExp(ctx.exp()));
     }
 
     @Override
     public IntegerValue visitDivMulMod(ImpParser.DivMulModContext ctx) {
+        return IntegerValue.of(divMulMod(ctx));
+    }
+
+    private int divMulMod(ImpParser.DivMulModContext ctx) {
         int left = visitNatExp(ctx.exp(0));
         int right = visitNatExp(ctx.exp(1));
 
         return switch (ctx.op.getType()) {
-            case ImpParser.DIV -> new IntegerValue(left / right);
-            case ImpParser.MUL -> new IntegerValue(left * right);
-            case ImpParser.MOD -> new IntegerValue(left % right);
+            case ImpParser.DIV -> left / right;
+            case ImpParser.MUL -> left * right;
+            case ImpParser.MOD -> left % right;
             default -> throw new IllegalStateException("Unexpected value: " + ctx.op.getType());
         };
     }
 
     @Override
     public IntegerValue visitPlusMinus(ImpParser.PlusMinusContext ctx) {
+        return IntegerValue.of(plusMinus(ctx));
+    }
+
+    private int plusMinus(ImpParser.PlusMinusContext ctx) {
         int left = visitNatExp(ctx.exp(0));
         int right = visitNatExp(ctx.exp(1));
 
         return switch (ctx.op.getType()) {
-            case ImpParser.PLUS -> new IntegerValue(left + right);
-            case ImpParser.MINUS -> new IntegerValue(Math.max(left - right, 0));
+            case ImpParser.PLUS -> left + right;
+            case ImpParser.MINUS -> Math.max(left - right, 0);
             default -> throw new IllegalStateException("Unexpected value: " + ctx.op.getType());
         };
     }
@@ -178,8 +312,8 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
         AbstractValue<?> right = (AbstractValue<?>) visit(ctx.exp(1));
 
         return switch (ctx.op.getType()) {
-            case ImpParser.EQQ -> new BoolValue(left.equals(right));
-            case ImpParser.NEQ -> new BoolValue(!left.equals(right));
+            case ImpParser.EQQ -> BoolValue.of(left.equals(right));
+            case ImpParser.NEQ -> BoolValue.of(!left.equals(right));
             default -> throw new IllegalStateException("Unexpected value: " + ctx.op.getType());
         };
     }
@@ -197,27 +331,35 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
 
     @Override
     public BoolValue visitCmpExp(ImpParser.CmpExpContext ctx) {
+        return BoolValue.of(cmpExp(ctx));
+    }
+
+    private boolean cmpExp(ImpParser.CmpExpContext ctx) {
         int left = visitNatExp(ctx.exp(0));
         int right = visitNatExp(ctx.exp(1));
 
         return switch (ctx.op.getType()) {
-            case ImpParser.GEQ -> new BoolValue(left >= right);
-            case ImpParser.LEQ -> new BoolValue(left <= right);
-            case ImpParser.LT -> new BoolValue(left < right);
-            case ImpParser.GT -> new BoolValue(left > right);
-            default -> null;
+            case ImpParser.GEQ -> left >= right;
+            case ImpParser.LEQ -> left <= right;
+            case ImpParser.LT -> left < right;
+            case ImpParser.GT -> left > right;
+            default -> throw new IllegalStateException("Unexpected value: " + ctx.op.getType());
         };
     }
 
     @Override
     public BoolValue visitLogicExp(ImpParser.LogicExpContext ctx) {
+        return BoolValue.of(logicExp(ctx));
+    }
+
+    private boolean logicExp(ImpParser.LogicExpContext ctx) {
         boolean left = visitBoolExp(ctx.exp(0));
         boolean right = visitBoolExp(ctx.exp(1));
 
         return switch (ctx.op.getType()) {
-            case ImpParser.AND -> new BoolValue(left && right);
-            case ImpParser.OR -> new BoolValue(left || right);
-            default -> null;
+            case ImpParser.AND -> left && right;
+            case ImpParser.OR -> left || right;
+            default -> throw new IllegalStateException("Unexpected value: " + ctx.op.getType());
         };
     }
 
@@ -227,12 +369,85 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
         if (functions.containsKey(name)) {
             Utils.panic(ctx, "Fun " + name + " already defined.");
         }
-        functions.put(name, new Fun(ctx));
-        return new VoidValue();
+        Fun fun = new Fun(ctx);
+        functions.put(name, fun);
+        tailCalls.addAll(fun.getTailCalls());
+        return VoidValue.VOID;
     }
 
     @Override
     public AbstractReturnValue visitCall(ImpParser.CallContext ctx) {
+        Fun fun = callee(ctx);
+        List<AbstractValue<?>> args = arguments(ctx);
+
+        // A pure function always returns the same value for the same arguments
+        if (memoizer != null && memoizer.isPure(ctx.ID().getText())) {
+            String name = ctx.ID().getText();
+            AbstractValue<?> ret = memoizer.get(name, args);
+            if (ret == null) {
+                ret = invoke(ctx, fun, memory(fun, args));
+                memoizer.put(name, args, ret);
+            }
+            return ret;
+        }
+        return invoke(ctx, fun, memory(fun, args));
+    }
+
+    private AbstractValue<?> invoke(ImpParser.CallContext ctx, Fun fun, HashMap<String, AbstractValue<?>> newMemory) {
+        // Save the memory state before the call and swap to the function new memory state
+        HashMap<String, AbstractValue<?>> snapshot = this.memory;
+        AbstractValue<?> ret;
+        // Without a recording the event is never allocated, the JIT removes it
+        CallEvent event = new CallEvent();
+        event.begin();
+        // A panic ends the run, so the call stack is not popped when the call doesn't return
+        if (callStack != null) {
+            callStack.push(fun, ctx.start.getLine());
+        }
+        meter.enter(ctx.start.getLine(), ctx.start.getCharPositionInLine());
+        while (true) {
+            this.memory = newMemory;
+            if (callStack != null) {
+                callStack.replace(fun);
+            }
+            if (profiler != null) {
+                profiler.enter(fun);
+            }
+            // Visit the function body (if there is one) and get the return value. A tail call in the body unwinds
+            // back here and the loop continues with the callee, so the Java stack doesn't grow with the tail calls.
+            try {
+                if (fun.getBody() != null) {
+                    visit(fun.getBody());
+                }
+                ret = (AbstractValue<?>) visit(fun.getRet());
+                break;
+            } catch (TailCall call) {
+                fun = call.fun;
+                newMemory = call.memory;
+            } finally {
+                // The function ends also when it continues with a tail call
+                if (profiler != null) {
+                    profiler.exit();
+                }
+            }
+        }
+
+        // Reset the memory to the state before the function call
+        this.memory = snapshot;
+        meter.exit();
+        if (callStack != null) {
+            callStack.pop();
+        }
+        if (event.shouldCommit()) {
+            event.function = ctx.ID().getText();
+            event.line = ctx.start.getLine();
+            event.commit();
+        }
+        return ret;
+    }
+
+    // Get the called function, panics if it's not declared or the number of arguments is wrong
+    private Fun callee(ImpParser.CallContext ctx) {
         // Get the name of the function
         String name = ctx.ID().getText();
         // Check if it was previously declared
@@ -241,39 +456,42 @@ public class Interpreter extends ImpBaseVisitor<AbstractReturnValue> {
         }
 
         Fun fun = functions.get(name);
-        List<String> argsName = fun.getParameters();
-        // Get the argument context to be evaluated into AbstractValues
-        List<ImpParser.ExpContext> argsCtx = ctx.exp();
-
         // Check if we have the same number of arguments in the function and values provided
-        if (argsCtx.size() != argsName.size()) {
+        if (ctx.exp().size() != fun.getParameters().size()) {
             Utils.panic(ctx, "Function f called with the wrong number of arguments");
         }
+        return fun;
+    }
 
-        // Create a new memory map for the value of the arguments
-        HashMap<String, AbstractValue<?>> newMemory = new HashMap<>();
+    // We first evaluate the expressions in the arguments before changing to the function context
+    private List<AbstractValue<?>> arguments(ImpParser.CallContext ctx) {
+        List<AbstractValue<?>> args = new ArrayList<>(ctx.exp().size());
+        for (ImpParser.ExpContext arg : ctx.exp()) {
+            args.add((AbstractValue<?>) visit(arg));
+        }
+        return args;
+    }
 
-        // We first evaluate the expressions in the arguments before changing to the function context (newMemory)
-        List<AbstractValue<?>> args = argsCtx.stream()
-                .map((exp) -> (AbstractValue<?>) visit(exp))
-                .collect(Collectors.toList());
+    // Create a new memory map putting the values of the arguments with the respective parameter name
+    private static HashMap<String, AbstractValue<?>> memory(Fun fun, List<AbstractValue<?>> args) {
+        List<String> argsName = fun.getParameters();
+        HashMap<String, AbstractValue<?>> newMemory = new HashMap<>();
         for (int i = 0; i < args.size(); i++) {
-            // Put the values in memory with the respective argument name
             newMemory.put(argsName.get(i), args.get(i));
         }
+        return newMemory;
+    }
 
-        // Then save the memory state before the call and swap to the function new memory state
-        HashMap<String, AbstractValue<?>> snapshot = this.memory;
-        this.memory = newMemory;
+    // Unwind the body of a function to the call that is running it, to continue with the callee of a tail call
+    private static class TailCall extends RuntimeException {
 
-        // Visit the function body (if there is one) and get the return value
-        if (fun.getBody() != null) {
-            visit(fun.getBody());
-        }
-        AbstractValue<?> ret = (AbstractValue<?>) visit(fun.getRet());
+        private final Fun fun;
+        private final HashMap<String, AbstractValue<?>> memory;
 
-        // Reset the memory to the state before the function call
-        this.memory = snapshot;
-        return ret;
+        TailCall(Fun fun, HashMap<String, AbstractValue<?>> memory) {
+            super(null, null, false, false);
+            this.fun = fun;
+            this.memory = memory;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package org.example.interpreter;
+
+// Counters of the memoization cache of a function
+public class MemoStats {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    void hit() {
+        hits++;
+    }
+
+    void miss() {
+        misses++;
+    }
+
+    void evict() {
+        evictions++;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + " misses=" + misses + " evictions=" + evictions;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.interpreter;
+
+import org.example.interpreter.values.AbstractValue;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Results of the calls of the pure functions, keyed by the values of the arguments. Every function has its own
+// cache with at most capacity entries, the least recently used one is evicted when it's full.
+public class Memoizer {
+
+    private final int capacity;
+    private final Map<String, Map<List<AbstractValue<?>>, AbstractValue<?>>> caches = new HashMap<>();
+    private final Map<String, MemoStats> stats = new HashMap<>();
+    private Set<String> pure = Set.of();
+
+    public Memoizer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    // Find the functions that can be memoized, called once the program functions are declared
+    public void analyze(Map<String, Fun> functions) {
+        pure = Purity.pureFunctions(functions);
+        for (String name : pure) {
+            MemoStats counters = new MemoStats();
+            stats.put(name, counters);
+            caches.put(name, new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<AbstractValue<?>>, AbstractValue<?>> eldest) {
+                    if (size() > capacity) {
+                        counters.evict();
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        }
+    }
+
+    public boolean isPure(String name) {
+        return pure.contains(name);
+    }
+
+    // The result of a previous call with the same arguments, null if there is none
+    public @Nullable AbstractValue<?> get(String name, List<AbstractValue<?>> args) {
+        AbstractValue<?> result = caches.get(name).get(args);
+        if (result != null) {
+            stats.get(name).hit();
+        } else {
+            stats.get(name).miss();
+        }
+        return result;
+    }
+
+    public void put(String name, List<AbstractValue<?>> args, AbstractValue<?> result) {
+        caches.get(name).put(args, result);
+    }
+
+    // Counters of every pure function
+    public Map<String, MemoStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.interpreter;
+
+import org.example.Utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Counters of the work done by a run, updated by every engine at the same points: the calls, including the tail
+// calls, and the iterations of the loops. Every other node runs a bounded number of times between two of these
+// points, so they measure the work of a program in the same way on all the engines. A meter follows a single run.
+//
+// The same points bound the run: it panics when the calls and iterations exceed the fuel, when the time passes
+// the deadline or when another thread cancels it. The limits are checked only once every CHECK_INTERVAL points, so
+// at every point a run pays only the increment of a counter and a compare. The depth of the calls is bounded too,
+// checked only when a call goes deeper than any before, so every engine panics at the same call past the limit.
+public class Meter {
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    // Calls and iterations between two checks of the deadline and of the cancellation
+    public static final int CHECK_INTERVAL = 1024;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    // Allocation counter of the threads, null when the JVM doesn't provide it
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+
+    // Calls and iterations, the calls are the difference so a call updates a single counter
+    private long ticks;
+    private long iterations;
+    // Nested calls running, the top level command is at depth 0
+    private int depth;
+    private int maxDepth;
+    // Nested calls allowed, a call past them panics for stack overflow
+    private int depthLimit = Integer.MAX_VALUE;
+    // Calls and iterations allowed, and time from System.nanoTime after which the run stops
+    private final long fuel;
+    private final long timeoutNanos;
+    private final long deadline;
+    // Set by another thread, read at the next check
+    private volatile boolean cancelled;
+    // Ticks at the next check
+    private long nextCheck;
+
+    public Meter() {
+        this(UNLIMITED, UNLIMITED);
+    }
+
+    // The timeout starts with the meter, so the meter is created right before the run
+    public Meter(long fuel, long timeoutNanos) {
+        if (fuel < 0 || timeoutNanos < 0) {
+            throw new IllegalArgumentException("Fuel and timeout must not be negative: " + fuel + ", " + timeoutNanos);
+        }
+        this.fuel = fuel;
+        this.timeoutNanos = timeoutNanos;
+        this.deadline = timeoutNanos == UNLIMITED ? 0 : System.nanoTime() + timeoutNanos;
+        this.nextCheck = nextCheck(0, fuel);
+    }
+
+    private static com.sun.management.ThreadMXBean allocations() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) THREADS;
+        }
+        return null;
+    }
+
+    // CPU time used by the current thread, 0 when the JVM doesn't measure it
+    public static long cpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    // Bytes allocated by the current thread since it started, 0 when the JVM doesn't count them
+    public static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // Check at the point where the fuel runs out, or after the interval when there's more
+    private static long nextCheck(long ticks, long left) {
+        return ticks + (left >= CHECK_INTERVAL ? CHECK_INTERVAL : left + 1);
+    }
+
+    // Bound the nesting of the calls, set by the run before it starts
+    public void limitDepth(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Depth limit must not be negative: " + limit);
+        }
+        depthLimit = limit;
+    }
+
+    // A call at the given position starts, the depth grows until it returns
+    public void enter(int line, int column) {
+        if (++depth > maxDepth) {
+            if (depth > depthLimit) {
+                Utils.panic(line, column, "Stack overflow, more than " + depthLimit + " nested calls");
+            }
+            maxDepth = depth;
+        }
+        if (++ticks >= nextCheck) {
+            check(line, column);
+        }
+    }
+
+    // The running call returns
+    public void exit() {
+        depth--;
+    }
+
+    // The running call continues with the tail call at the given position, at the same depth
+    public void tailCall(int line, int column) {
+        if (++ticks >= nextCheck) {
+            check(line, column);
+        }
+    }
+
+    // The body of the loop at the given position runs once more
+    public void iteration(int line, int column) {
+        iterations++;
+        if (++ticks >= nextCheck) {
+            check(line, column);
+        }
+    }
+
+    // The body of the loop ran the given number of times more. The JIT counts the iterations in a local and adds
+    // them at most every CHECK_INTERVAL iterations and at the end of the loop, so the fuel is checked late but an
+    // exhausted fuel still stops the run.
+    public void iterations(int count, int line, int column) {
+        iterations += count;
+        ticks += count;
+        if (ticks >= nextCheck) {
+            check(line, column);
+        }
+    }
+
+    // Kept out of the hooks, so they stay small enough to be inlined
+    private void check(int line, int column) {
+        if (cancelled) {
+            Utils.panic(line, column, "Execution cancelled");
+        }
+        long left = fuel - ticks;
+        if (left < 0) {
+            Utils.panic(line, column, "Out of fuel, more than " + fuel + " calls and loop iterations");
+        }
+        if (timeoutNanos != UNLIMITED && System.nanoTime() - deadline > 0) {
+            Utils.panic(line, column, "Deadline exceeded, running for more than " + timeoutNanos / 1_000_000 + " ms");
+        }
+        nextCheck = nextCheck(ticks, left);
+    }
+
+    // Stop the run at its next check, it can be called from any thread
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getCalls() {
+        return ticks - iterations;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.interpreter;
+
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.Typing;
+import org.example.interpreter.nodes.Frame;
+import org.example.interpreter.nodes.FunctionNode;
+import org.example.interpreter.nodes.NodeBuilder;
+import org.example.interpreter.output.OutputSink;
+import org.jetbrains.annotations.Nullable;
+
+// Executor of the self specializing node tree: every node rewrites itself to an int or boolean only version after
+// the first execution, so the common path doesn't check types or box values.
+public class NodeInterpreter {
+
+    private final FunctionNode main;
+    // Program output, flushed at the end of the program
+    private final OutputSink out;
+
+    // With the typing of a checked program the tree starts specialized
+    public NodeInterpreter(IrProgram program, @Nullable Typing typing, OutputSink out) {
+        this(program, typing, out, new Meter());
+    }
+
+    public NodeInterpreter(IrProgram program, @Nullable Typing typing, OutputSink out, Meter meter) {
+        this.out = out;
+        this.main = NodeBuilder.build(program, typing, out, meter);
+    }
+
+    public void run() {
+        try {
+            main.executeBody(new Frame(main));
+        } finally {
+            out.flush();
+        }
+    }
+}
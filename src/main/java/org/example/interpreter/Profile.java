@@ -0,0 +1,78 @@
+package org.example.interpreter;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Hot spots of a profiled run, sorted by exclusive time with the slowest first
+public class Profile {
+
+    private final List<ProfileEntry> entries;
+
+    Profile(List<ProfileEntry> entries) {
+        List<ProfileEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(ProfileEntry::getExclusiveNanos).reversed()
+                .thenComparing(ProfileEntry::getLine).thenComparing(ProfileEntry::getColumn));
+        this.entries = List.copyOf(sorted);
+    }
+
+    public List<ProfileEntry> getEntries() {
+        return entries;
+    }
+
+    // Entry of the function with the given name, null if it was never called
+    @Nullable
+    public ProfileEntry getFunction(String name) {
+        for (ProfileEntry entry : entries) {
+            if (entry.getKind() == Profiler.Kind.FUNCTION && entry.getName().equals(name)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // Entry of the while or if at the given position, null if it was never executed
+    @Nullable
+    public ProfileEntry getSite(int line, int column) {
+        for (ProfileEntry entry : entries) {
+            if (entry.getKind() != Profiler.Kind.FUNCTION && entry.getLine() == line && entry.getColumn() == column) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // Formatted in the root locale, the default one could change the digits and the lower case of the kind
+    public String toJson() {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < entries.size(); i++) {
+            ProfileEntry entry = entries.get(i);
+            out.append(i > 0 ? ",\n" : "\n").append(String.format(Locale.ROOT,
+                    "{\"kind\":\"%s\",\"name\":\"%s\",\"line\":%d,\"column\":%d,\"count\":%d,\"iterations\":%d,"
+                            + "\"inclusiveNanos\":%d,\"exclusiveNanos\":%d,\"inclusiveBytes\":%d,"
+                            + "\"exclusiveBytes\":%d}",
+                    entry.getKind().name().toLowerCase(Locale.ROOT), entry.getName(), entry.getLine(),
+                    entry.getColumn(), entry.getCount(), entry.getIterations(), entry.getInclusiveNanos(),
+                    entry.getExclusiveNanos(), entry.getInclusiveBytes(), entry.getExclusiveBytes()));
+        }
+        return out.append("\n]\n").toString();
+    }
+
+    // Table of the hot spots, the times in milliseconds and the allocations in KiB, also in the root locale
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-24s %10s %12s %12s %12s %12s %12s%n",
+                "site", "count", "iterations", "self ms", "total ms", "self KiB", "total KiB"));
+        for (ProfileEntry entry : entries) {
+            out.append(String.format(Locale.ROOT, "%-24s %10d %12s %12.3f %12.3f %12d %12d%n",
+                    entry.getLocation(), entry.getCount(),
+                    entry.getKind() == Profiler.Kind.FUNCTION ? "" : entry.getIterations(),
+                    entry.getExclusiveNanos() / 1e6, entry.getInclusiveNanos() / 1e6,
+                    entry.getExclusiveBytes() >> 10, entry.getInclusiveBytes() >> 10));
+        }
+        return out.toString();
+    }
+}
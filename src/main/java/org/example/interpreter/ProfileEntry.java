@@ -0,0 +1,78 @@
+package org.example.interpreter;
+
+// Measures of a function or of a while or if of the source in a profiled run
+public class ProfileEntry {
+
+    private final Profiler.Kind kind;
+    // Name of the function, or while or if
+    private final String name;
+    private final int line;
+    private final int column;
+    // Calls of the function or executions of the while or if
+    private final long count;
+    // Iterations of a while, or times the then branch of an if was taken
+    private final long iterations;
+    private final long inclusiveNanos;
+    private final long exclusiveNanos;
+    private final long inclusiveBytes;
+    private final long exclusiveBytes;
+
+    ProfileEntry(Profiler.Kind kind, String name, int line, int column, long count, long iterations,
+                 long inclusiveNanos, long exclusiveNanos, long inclusiveBytes, long exclusiveBytes) {
+        this.kind = kind;
+        this.name = name;
+        this.line = line;
+        this.column = column;
+        this.count = count;
+        this.iterations = iterations;
+        this.inclusiveNanos = inclusiveNanos;
+        this.exclusiveNanos = exclusiveNanos;
+        this.inclusiveBytes = inclusiveBytes;
+        this.exclusiveBytes = exclusiveBytes;
+    }
+
+    public Profiler.Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getInclusiveNanos() {
+        return inclusiveNanos;
+    }
+
+    public long getExclusiveNanos() {
+        return exclusiveNanos;
+    }
+
+    public long getInclusiveBytes() {
+        return inclusiveBytes;
+    }
+
+    public long getExclusiveBytes() {
+        return exclusiveBytes;
+    }
+
+    // Name and position, like the diagnostics
+    public String getLocation() {
+        return name + "@" + line + ":" + column;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.interpreter;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+
+// Profile of a run of the tree interpreter: for every function and every while and if of the source it counts the
+// executions and measures the wall time and the bytes allocated by the running thread, inclusive of the functions,
+// loops and conditionals nested in it and exclusive of them. It's enabled by giving it to the Interpreter, without
+// a profiler the interpreter only checks a null field. A profiler follows a single run on a single thread.
+public class Profiler {
+
+    public enum Kind {
+        FUNCTION, WHILE, IF
+    }
+
+    // Counters of a function or of a while or if of the source
+    static class Site {
+
+        private final Kind kind;
+        private final String name;
+        private final int line;
+        private final int column;
+        private long count;
+        private long iterations;
+        private long inclusiveNanos;
+        private long exclusiveNanos;
+        private long inclusiveBytes;
+        private long exclusiveBytes;
+        // Frames of the site on the stack, the inclusive measures are taken only by the outermost of a recursion
+        private int active;
+
+        Site(Kind kind, String name, int line, int column) {
+            this.kind = kind;
+            this.name = name;
+            this.line = line;
+            this.column = column;
+        }
+
+        ProfileEntry snapshot() {
+            return new ProfileEntry(kind, name, line, column, count, iterations, inclusiveNanos, exclusiveNanos,
+                    inclusiveBytes, exclusiveBytes);
+        }
+    }
+
+    // Site running on the stack, the frames are reused so the profiler doesn't allocate while it's measuring
+    private static class Frame {
+        private Site site;
+        private long start;
+        private long startBytes;
+        private long childNanos;
+        private long childBytes;
+    }
+
+    private final IdentityHashMap<Fun, Site> functions = new IdentityHashMap<>();
+    private final IdentityHashMap<ParserRuleContext, Site> sites = new IdentityHashMap<>();
+    private final List<Frame> stack = new ArrayList<>();
+    private int depth;
+
+    // A call of the function starts
+    void enter(Fun fun) {
+        Site site = functions.get(fun);
+        if (site == null) {
+            site = new Site(Kind.FUNCTION, fun.getName(), fun.getLine(), fun.getColumn());
+            functions.put(fun, site);
+        }
+        push(site);
+    }
+
+    // The execution of a while or an if starts
+    void enter(ParserRuleContext ctx, Kind kind) {
+        Site site = sites.get(ctx);
+        if (site == null) {
+            site = new Site(kind, kind.name().toLowerCase(Locale.ROOT), ctx.start.getLine(),
+                    ctx.start.getCharPositionInLine());
+            sites.put(ctx, site);
+        }
+        push(site);
+    }
+
+    // An iteration of the innermost while, or the then branch taken by the innermost if
+    void iteration() {
+        stack.get(depth - 1).site.iterations++;
+    }
+
+    // The innermost function, while or if ends, normally or by a panic or a tail call
+    void exit() {
+        Frame frame = stack.get(--depth);
+        long inclusive = System.nanoTime() - frame.start;
+        long bytes = Meter.allocatedBytes() - frame.startBytes;
+        Site site = frame.site;
+        site.exclusiveNanos += inclusive - frame.childNanos;
+        site.exclusiveBytes += bytes - frame.childBytes;
+        if (--site.active == 0) {
+            site.inclusiveNanos += inclusive;
+            site.inclusiveBytes += bytes;
+        }
+        if (depth > 0) {
+            Frame parent = stack.get(depth - 1);
+            parent.childNanos += inclusive;
+            parent.childBytes += bytes;
+        }
+        frame.site = null;
+    }
+
+    private void push(Site site) {
+        if (depth == stack.size()) {
+            stack.add(new Frame());
+        }
+        Frame frame = stack.get(depth++);
+        frame.site = site;
+        frame.childNanos = 0;
+        frame.childBytes = 0;
+        site.count++;
+        site.active++;
+        frame.startBytes = Meter.allocatedBytes();
+        frame.start = System.nanoTime();
+    }
+
+    // Measures taken so far, the hottest sites first
+    public Profile getProfile() {
+        List<ProfileEntry> entries = new ArrayList<>();
+        for (Site site : functions.values()) {
+            entries.add(site.snapshot());
+        }
+        for (Site site : sites.values()) {
+            entries.add(site.snapshot());
+        }
+        return new Profile(entries);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.interpreter;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.example.interpreter.antlr.ImpParser;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Find the pure functions. A function runs in its own memory, so its only effect is the output: it's pure if its
+// body never executes an out and it only calls pure functions, then its result only depends on its arguments.
+public final class Purity {
+
+    private Purity() {
+    }
+
+    // Names of the pure functions among the declared ones
+    public static Set<String> pureFunctions(Map<String, Fun> functions) {
+        Map<String, Set<String>> callees = new HashMap<>();
+        Set<String> pure = new HashSet<>();
+        for (Map.Entry<String, Fun> entry : functions.entrySet()) {
+            Fun fun = entry.getValue();
+            Set<String> called = new HashSet<>();
+            boolean out = fun.getBody() != null && scan(fun.getBody(), called);
+            out |= scan(fun.getRet(), called);
+            callees.put(entry.getKey(), called);
+            if (!out) {
+                pure.add(entry.getKey());
+            }
+        }
+
+        // Remove the functions calling an impure or undeclared one until nothing changes, the impurity goes back
+        // through the chains of calls
+        boolean changed = true;
+        while (changed) {
+            changed = pure.removeIf((name) -> !pure.containsAll(callees.get(name)));
+        }
+        return pure;
+    }
+
+    // Collect the names of the called functions, returns whether there is an out
+    private static boolean scan(ParseTree tree, Set<String> called) {
+        if (tree instanceof ImpParser.OutContext) {
+            return true;
+        }
+        if (tree instanceof ImpParser.CallContext) {
+            called.add(((ImpParser.CallContext) tree).ID().getText());
+        }
+        boolean out = false;
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            out |= scan(tree.getChild(i), called);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.interpreter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+// Sampling profiler of the call stack of a program: a background thread takes the stack at a fixed interval and
+// counts the samples of every stack. Unlike the Profiler the interpreter only pushes and pops the calls, so the
+// measures are not distorted in tight recursions. The counts are written in the collapsed stacks format read by
+// the flame graph tools.
+public class Sampler {
+
+    private final CallStack stack;
+    private final long intervalNanos;
+    // Samples of every collapsed stack, only touched by the sampling thread until it's stopped
+    private final Map<String, Long> samples = new HashMap<>();
+    private volatile boolean running;
+    private Thread thread;
+
+    public Sampler(CallStack stack, long intervalNanos) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("The interval must be positive: " + intervalNanos);
+        }
+        this.stack = stack;
+        this.intervalNanos = intervalNanos;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(() -> {
+            while (running) {
+                samples.merge(stack.collapse(), 1L, Long::sum);
+                LockSupport.parkNanos(intervalNanos);
+            }
+        }, "havefun-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stop the sampling, the samples can be read after it
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Map<String, Long> getSamples() {
+        return Map.copyOf(samples);
+    }
+
+    // A line for every stack with the number of its samples, the most sampled first
+    public String toCollapsed() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(samples.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> entry : entries) {
+            out.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    public void write(Path path) throws IOException {
+        Files.writeString(path, toCollapsed());
+    }
+}
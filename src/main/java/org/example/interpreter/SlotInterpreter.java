@@ -0,0 +1,244 @@
+package org.example.interpreter;
+
+import org.example.Utils;
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.TailCalls;
+import org.example.interpreter.ir.Typing;
+import org.example.interpreter.output.OutputSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Executor of the resolved IR. Variables live in a flat array indexed by the slot computed by the Resolver, so a
+// variable access is an array load instead of a hash map lookup. Values are stored as Integer and Boolean.
+public class SlotInterpreter implements IrVisitor<Object> {
+
+    private final IrProgram program;
+    // Program output, flushed at the end of the program
+    private final OutputSink out;
+    // Frame of the function being executed, indexed by slot
+    private Object[] frame;
+    // Assignments in tail position of all the functions
+    private final Set<Com.Assign> tailCalls = new HashSet<>();
+    // Calls and loop iterations of the run
+    private final Meter meter;
+    // The program passed the static checks, so the operands always have the expected type
+    private final boolean checked;
+
+    public SlotInterpreter(IrProgram program, OutputSink out) {
+        this(program, null, out, new Meter());
+    }
+
+    // With the typing of a checked program the operands are not checked
+    public SlotInterpreter(IrProgram program, @Nullable Typing typing, OutputSink out, Meter meter) {
+        this.program = program;
+        this.out = out;
+        this.meter = meter;
+        this.checked = typing != null;
+        this.frame = new Object[program.getSlotCount()];
+        for (IrFunction fun : program.getFunctions()) {
+            tailCalls.addAll(TailCalls.of(fun));
+        }
+    }
+
+    public void run() {
+        try {
+            program.getMain().accept(this);
+        } finally {
+            out.flush();
+        }
+    }
+
+    // Evaluate the expression to an int, panics if the expression doesn't return a natural
+    private int visitNatExp(Exp exp) {
+        Object value = exp.accept(this);
+        if (!checked && !(value instanceof Integer)) {
+            Utils.panic(exp.getLine(), exp.getColumn(), "Type mismatch, natural expression expected.");
+        }
+        return (Integer) value;
+    }
+
+    // Evaluate the expression to a boolean, panics if the expression doesn't return a boolean
+    private boolean visitBoolExp(Exp exp) {
+        Object value = exp.accept(this);
+        if (!checked && !(value instanceof Boolean)) {
+            Utils.panic(exp.getLine(), exp.getColumn(), "Type mismatch, boolean expression expected.");
+        }
+        return (Boolean) value;
+    }
+
+    @Override
+    public Object visitNat(Exp.Nat exp) {
+        return exp.getValue();
+    }
+
+    @Override
+    public Object visitBool(Exp.Bool exp) {
+        return exp.getValue();
+    }
+
+    @Override
+    public Object visitVar(Exp.Var exp) {
+        Object value = frame[exp.getSlot()];
+        if (value == null) {
+            Utils.panic(exp.getLine(), exp.getColumn(), "Variable " + exp.getName() + " used but never instantiated");
+        }
+        return value;
+    }
+
+    @Override
+    public Object visitBinary(Exp.Binary exp) {
+        switch (exp.getOp()) {
+            case EQQ:
+                return exp.getLeft().accept(this).equals(exp.getRight().accept(this));
+            case NEQ:
+                return !exp.getLeft().accept(this).equals(exp.getRight().accept(this));
+            case AND: {
+                boolean left = visitBoolExp(exp.getLeft());
+                boolean right = visitBoolExp(exp.getRight());
+                return left && right;
+            }
+            case OR: {
+                boolean left = visitBoolExp(exp.getLeft());
+                boolean right = visitBoolExp(exp.getRight());
+                return left || right;
+            }
+            default:
+                break;
+        }
+
+        int left = visitNatExp(exp.getLeft());
+        int right = visitNatExp(exp.getRight());
+        return switch (exp.getOp()) {
+            case POW -> (int) Math.pow(left, right);
+            case MUL -> left * right;
+            case DIV -> left / right;
+            case MOD -> left % right;
+            case SHL, SHR, MASK, SQUARE -> exp.getOp().apply(left, right);
+            case PLUS -> left + right;
+            case MINUS -> Math.max(left - right, 0);
+            case LT -> left < right;
+            case LEQ -> left <= right;
+            case GEQ -> left >= right;
+            case GT -> left > right;
+            default -> throw new IllegalStateException("Unexpected value: " + exp.getOp());
+        };
+    }
+
+    @Override
+    public Object visitNot(Exp.Not exp) {
+        return !visitBoolExp(exp.getExp());
+    }
+
+    @Override
+    public Object visitCall(Exp.Call exp) {
+        IrFunction fun = program.getFunction(exp.getFunction());
+        Object[] newFrame = arguments(exp);
+
+        // Swap to the function frame and restore the caller one on return. A tail call in the body unwinds back
+        // here and the loop continues with the callee, so the Java stack doesn't grow with the tail calls.
+        Object[] snapshot = this.frame;
+        Object ret;
+        meter.enter(exp.getLine(), exp.getColumn());
+        while (true) {
+            this.frame = newFrame;
+            try {
+                if (fun.getBody() != null) {
+                    fun.getBody().accept(this);
+                }
+                ret = fun.getRet().accept(this);
+                break;
+            } catch (TailCall call) {
+                fun = program.getFunction(call.function);
+                newFrame = call.frame;
+            }
+        }
+        meter.exit();
+        this.frame = snapshot;
+        return ret;
+    }
+
+    // Evaluate the arguments in the caller frame, they are the first slots of the new one
+    private Object[] arguments(Exp.Call exp) {
+        List<Exp> args = exp.getArgs();
+        Object[] newFrame = new Object[program.getFunction(exp.getFunction()).getSlotCount()];
+        for (int i = 0; i < args.size(); i++) {
+            newFrame[i] = args.get(i).accept(this);
+        }
+        return newFrame;
+    }
+
+    @Override
+    public Object visitSkip(Com.Skip com) {
+        return null;
+    }
+
+    @Override
+    public Object visitAssign(Com.Assign com) {
+        if (com.getExp() instanceof Exp.Call && tailCalls.contains(com)) {
+            Exp.Call call = (Exp.Call) com.getExp();
+            Object[] newFrame = arguments(call);
+            meter.tailCall(call.getLine(), call.getColumn());
+            throw new TailCall(call.getFunction(), newFrame);
+        }
+        frame[com.getSlot()] = com.getExp().accept(this);
+        return null;
+    }
+
+    @Override
+    public Object visitSeq(Com.Seq com) {
+        for (Com command : com.getCommands()) {
+            command.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitIf(Com.If com) {
+        if (visitBoolExp(com.getGuard())) {
+            com.getThen().accept(this);
+        } else {
+            com.getOtherwise().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitWhile(Com.While com) {
+        while (visitBoolExp(com.getGuard())) {
+            meter.iteration(com.getLine(), com.getColumn());
+            com.getBody().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visitOut(Com.Out com) {
+        Object value = com.getExp().accept(this);
+        if (value instanceof Boolean) {
+            out.writeBool((Boolean) value);
+        } else {
+            out.writeInt((Integer) value);
+        }
+        return null;
+    }
+
+    // Unwind the body of a function to the call that is running it, to continue with the callee of a tail call
+    private static class TailCall extends RuntimeException {
+
+        private final int function;
+        private final Object[] frame;
+
+        TailCall(int function, Object[] frame) {
+            super(null, null, false, false);
+            this.function = function;
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.interpreter.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Call of a function of the program by the tree interpreter, from the entry to the return including the tail calls
+// it continues with. Only the calls slower than the threshold are recorded.
+@Name("org.example.havefun.Call")
+@Label("Function Call")
+@Category("HaveFun")
+@Description("Call of a HaveFun function")
+@Threshold("1 ms")
+@StackTrace(false)
+public class CallEvent extends jdk.jfr.Event {
+
+    @Label("Function")
+    public String function;
+
+    @Label("Line")
+    @Description("Line of the call")
+    public int line;
+}
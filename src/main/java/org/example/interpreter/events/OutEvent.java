@@ -0,0 +1,25 @@
+package org.example.interpreter.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Value written by an out of the program run by the tree interpreter. There is one for every out executed, so it's
+// disabled unless it's enabled explicitly in the recording settings.
+@Name("org.example.havefun.Out")
+@Label("Out")
+@Category("HaveFun")
+@Description("Value written by an out command")
+@Enabled(false)
+@StackTrace(false)
+public class OutEvent extends jdk.jfr.Event {
+
+    @Label("Value")
+    public String value;
+
+    @Label("Line")
+    public int line;
+}
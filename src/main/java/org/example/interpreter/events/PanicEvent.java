@@ -0,0 +1,23 @@
+package org.example.interpreter.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Diagnostic of a program that panics, while it's checked or while it runs
+@Name("org.example.havefun.Panic")
+@Label("Panic")
+@Category("HaveFun")
+@Description("Diagnostic of a HaveFun program that panics")
+public class PanicEvent extends jdk.jfr.Event {
+
+    @Label("Message")
+    public String message;
+
+    @Label("Line")
+    public int line;
+
+    @Label("Column")
+    public int column;
+}
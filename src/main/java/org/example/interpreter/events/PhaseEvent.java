@@ -0,0 +1,31 @@
+package org.example.interpreter.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Phase of the compilation or the execution of a program: parse, resolve, check, optimize or run
+@Name("org.example.havefun.Phase")
+@Label("Phase")
+@Category("HaveFun")
+@Description("Compilation or execution phase of a HaveFun program")
+@StackTrace(false)
+public class PhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Engine")
+    @Description("Engine running the program, only for the run phase")
+    public String engine;
+
+    // Event of the phase starting now, committed by the caller when the phase ends
+    public static PhaseEvent start(String phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.interpreter.ir;
+
+import org.example.Utils;
+
+import java.util.Comparator;
+import java.util.Set;
+
+// Static checks of a resolved program, run before the execution so a bad program fails without running. The names
+// are already checked by the Resolver, here every variable and function return gets a single type and every
+// variable must be assigned on all the paths reaching a read. A checked program can't have a type error at runtime.
+public class Checker {
+
+    public static Typing check(IrProgram program) {
+        Typing typing = null;
+        try {
+            typing = TypeInference.infer(program);
+        } catch (TypeException e) {
+            Utils.panic(e.getLine(), e.getColumn(), e.getMessage());
+        }
+
+        for (IrFunction fun : program.getFunctions()) {
+            checkAssigned(DefiniteAssignment.maybeUnassigned(fun));
+        }
+        checkAssigned(DefiniteAssignment.maybeUnassigned(program));
+        return typing;
+    }
+
+    // Panic on the first read, in source order, of a variable that is not definitely assigned
+    private static void checkAssigned(Set<Exp.Var> unassigned) {
+        unassigned.stream()
+                .min(Comparator.comparingInt(Exp.Var::getLine).thenComparingInt(Exp.Var::getColumn))
+                .ifPresent((var) -> Utils.panic(var.getLine(), var.getColumn(),
+                        "Variable " + var.getName() + " used but never instantiated"));
+    }
+}
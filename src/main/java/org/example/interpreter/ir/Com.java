@@ -0,0 +1,144 @@
+package org.example.interpreter.ir;
+
+import java.util.List;
+
+public abstract class Com extends Node {
+
+    protected Com(int line, int column) {
+        super(line, column);
+    }
+
+    public static final class Skip extends Com {
+
+        public Skip(int line, int column) {
+            super(line, column);
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitSkip(this);
+        }
+    }
+
+    public static final class Assign extends Com {
+        private final String name;
+        // Index of the assigned variable in the frame
+        private final int slot;
+        private final Exp exp;
+
+        public Assign(int line, int column, String name, int slot, Exp exp) {
+            super(line, column);
+            this.name = name;
+            this.slot = slot;
+            this.exp = exp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public Exp getExp() {
+            return exp;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitAssign(this);
+        }
+    }
+
+    // Sequence of commands, the nested `com ; com` of the parse tree are flattened in a single list
+    public static final class Seq extends Com {
+        private final List<Com> commands;
+
+        public Seq(int line, int column, List<Com> commands) {
+            super(line, column);
+            this.commands = List.copyOf(commands);
+        }
+
+        public List<Com> getCommands() {
+            return commands;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitSeq(this);
+        }
+    }
+
+    public static final class If extends Com {
+        private final Exp guard;
+        private final Com then;
+        private final Com otherwise;
+
+        public If(int line, int column, Exp guard, Com then, Com otherwise) {
+            super(line, column);
+            this.guard = guard;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        public Exp getGuard() {
+            return guard;
+        }
+
+        public Com getThen() {
+            return then;
+        }
+
+        public Com getOtherwise() {
+            return otherwise;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitIf(this);
+        }
+    }
+
+    public static final class While extends Com {
+        private final Exp guard;
+        private final Com body;
+
+        public While(int line, int column, Exp guard, Com body) {
+            super(line, column);
+            this.guard = guard;
+            this.body = body;
+        }
+
+        public Exp getGuard() {
+            return guard;
+        }
+
+        public Com getBody() {
+            return body;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitWhile(this);
+        }
+    }
+
+    public static final class Out extends Com {
+        private final Exp exp;
+
+        public Out(int line, int column, Exp exp) {
+            super(line, column);
+            this.exp = exp;
+        }
+
+        public Exp getExp() {
+            return exp;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitOut(this);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.interpreter.ir;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+// Find the variable reads that could happen before the variable is assigned. The state is the set of slots that
+// are assigned on every path reaching the node being visited.
+public class DefiniteAssignment implements IrVisitor<Void> {
+
+    private final Set<Exp.Var> unassigned = new HashSet<>();
+    private BitSet assigned;
+
+    private DefiniteAssignment(int parameters) {
+        this.assigned = new BitSet();
+        this.assigned.set(0, parameters);
+    }
+
+    public static Set<Exp.Var> maybeUnassigned(IrFunction fun) {
+        DefiniteAssignment analysis = new DefiniteAssignment(fun.getArity());
+        if (fun.getBody() != null) {
+            fun.getBody().accept(analysis);
+        }
+        fun.getRet().accept(analysis);
+        return analysis.unassigned;
+    }
+
+    public static Set<Exp.Var> maybeUnassigned(IrProgram program) {
+        DefiniteAssignment analysis = new DefiniteAssignment(0);
+        program.getMain().accept(analysis);
+        return analysis.unassigned;
+    }
+
+    @Override
+    public Void visitNat(Exp.Nat exp) {
+        return null;
+    }
+
+    @Override
+    public Void visitBool(Exp.Bool exp) {
+        return null;
+    }
+
+    @Override
+    public Void visitVar(Exp.Var exp) {
+        if (!assigned.get(exp.getSlot())) {
+            unassigned.add(exp);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(Exp.Binary exp) {
+        exp.getLeft().accept(this);
+        exp.getRight().accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitNot(Exp.Not exp) {
+        exp.getExp().accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitCall(Exp.Call exp) {
+        for (Exp arg : exp.getArgs()) {
+            arg.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitSkip(Com.Skip com) {
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Com.Assign com) {
+        com.getExp().accept(this);
+        assigned.set(com.getSlot());
+        return null;
+    }
+
+    @Override
+    public Void visitSeq(Com.Seq com) {
+        for (Com command : com.getCommands()) {
+            command.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Com.If com) {
+        com.getGuard().accept(this);
+        BitSet entry = assigned;
+        assigned = (BitSet) entry.clone();
+        com.getThen().accept(this);
+        BitSet then = assigned;
+        assigned = (BitSet) entry.clone();
+        com.getOtherwise().accept(this);
+        // Only the slots assigned by both branches are assigned after the if
+        assigned.and(then);
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Com.While com) {
+        com.getGuard().accept(this);
+        // The body only adds assignments, so the state at the head of the loop is the one at the entry. The body
+        // could never run, so after the loop the state is the entry one as well.
+        BitSet entry = assigned;
+        assigned = (BitSet) entry.clone();
+        com.getBody().accept(this);
+        assigned = entry;
+        return null;
+    }
+
+    @Override
+    public Void visitOut(Com.Out com) {
+        com.getExp().accept(this);
+        return null;
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.interpreter.ir;
+
+import java.util.List;
+
+public abstract class Exp extends Node {
+
+    protected Exp(int line, int column) {
+        super(line, column);
+    }
+
+    public static final class Nat extends Exp {
+        private final int value;
+
+        public Nat(int line, int column, int value) {
+            super(line, column);
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitNat(this);
+        }
+    }
+
+    public static final class Bool extends Exp {
+        private final boolean value;
+
+        public Bool(int line, int column, boolean value) {
+            super(line, column);
+            this.value = value;
+        }
+
+        public boolean getValue() {
+            return value;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitBool(this);
+        }
+    }
+
+    public static final class Var extends Exp {
+        private final String name;
+        // Index of the variable in the frame of the enclosing function (or of the program)
+        private final int slot;
+
+        public Var(int line, int column, String name, int slot) {
+            super(line, column);
+            this.name = name;
+            this.slot = slot;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitVar(this);
+        }
+    }
+
+    public static final class Binary extends Exp {
+        private final Op op;
+        private final Exp left;
+        private final Exp right;
+
+        public Binary(int line, int column, Op op, Exp left, Exp right) {
+            super(line, column);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        public Op getOp() {
+            return op;
+        }
+
+        public Exp getLeft() {
+            return left;
+        }
+
+        public Exp getRight() {
+            return right;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitBinary(this);
+        }
+    }
+
+    public static final class Not extends Exp {
+        private final Exp exp;
+
+        public Not(int line, int column, Exp exp) {
+            super(line, column);
+            this.exp = exp;
+        }
+
+        public Exp getExp() {
+            return exp;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitNot(this);
+        }
+    }
+
+    public static final class Call extends Exp {
+        private final String name;
+        // Index of the called function in the program function table
+        private final int function;
+        private final List<Exp> args;
+
+        public Call(int line, int column, String name, int function, List<Exp> args) {
+            super(line, column);
+            this.name = name;
+            this.function = function;
+            this.args = List.copyOf(args);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getFunction() {
+            return function;
+        }
+
+        public List<Exp> getArgs() {
+            return args;
+        }
+
+        @Override
+        public <T> T accept(IrVisitor<T> visitor) {
+            return visitor.visitCall(this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.interpreter.ir;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+public class IrFunction {
+
+    private final String name;
+    // Names of the parameters, they are always the first slots of the frame
+    private final List<String> parameters;
+    // Names of all the variables of the function indexed by slot
+    private final List<String> slots;
+    // The body of the function which could be missing
+    @Nullable
+    private final Com body;
+    // The expression for the function return value
+    private final Exp ret;
+    // Position of the declaration in the source
+    private final int line;
+    private final int column;
+
+    public IrFunction(String name, List<String> parameters, List<String> slots, @Nullable Com body, Exp ret,
+                      int line, int column) {
+        this.name = name;
+        this.parameters = List.copyOf(parameters);
+        this.slots = List.copyOf(slots);
+        this.body = body;
+        this.ret = ret;
+        this.line = line;
+        this.column = column;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    public int getArity() {
+        return parameters.size();
+    }
+
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    public int getSlotCount() {
+        return slots.size();
+    }
+
+    public @Nullable Com getBody() {
+        return body;
+    }
+
+    public Exp getRet() {
+        return ret;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
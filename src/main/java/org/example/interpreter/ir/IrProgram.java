@@ -0,0 +1,38 @@
+package org.example.interpreter.ir;
+
+import java.util.List;
+
+public class IrProgram {
+
+    // Function table, calls refer to the functions by their index
+    private final List<IrFunction> functions;
+    // The top level command and the names of its variables indexed by slot
+    private final Com main;
+    private final List<String> slots;
+
+    public IrProgram(List<IrFunction> functions, Com main, List<String> slots) {
+        this.functions = List.copyOf(functions);
+        this.main = main;
+        this.slots = List.copyOf(slots);
+    }
+
+    public List<IrFunction> getFunctions() {
+        return functions;
+    }
+
+    public IrFunction getFunction(int index) {
+        return functions.get(index);
+    }
+
+    public Com getMain() {
+        return main;
+    }
+
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    public int getSlotCount() {
+        return slots.size();
+    }
+}
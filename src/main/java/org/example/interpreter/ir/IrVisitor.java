@@ -0,0 +1,28 @@
+package org.example.interpreter.ir;
+
+public interface IrVisitor<T> {
+
+    T visitNat(Exp.Nat exp);
+
+    T visitBool(Exp.Bool exp);
+
+    T visitVar(Exp.Var exp);
+
+    T visitBinary(Exp.Binary exp);
+
+    T visitNot(Exp.Not exp);
+
+    T visitCall(Exp.Call exp);
+
+    T visitSkip(Com.Skip com);
+
+    T visitAssign(Com.Assign com);
+
+    T visitSeq(Com.Seq com);
+
+    T visitIf(Com.If com);
+
+    T visitWhile(Com.While com);
+
+    T visitOut(Com.Out com);
+}
@@ -0,0 +1,23 @@
+package org.example.interpreter.ir;
+
+public abstract class Node {
+
+    // Position of the node in the source, used to report errors
+    private final int line;
+    private final int column;
+
+    protected Node(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public abstract <T> T accept(IrVisitor<T> visitor);
+}
@@ -0,0 +1,114 @@
+package org.example.interpreter.ir;
+
+import org.example.interpreter.antlr.ImpParser;
+
+public enum Op {
+    POW("^"),
+    MUL("*"),
+    DIV("/"),
+    MOD("mod"),
+    // Strength reduced operators, only created by the optimizer: the right operand is the exponent k of a power of
+    // two and the result is the same of the operator they replace
+    SHL("<<"),
+    SHR(">>"),
+    MASK("&"),
+    SQUARE("^^"),
+    PLUS("+"),
+    MINUS("-"),
+    LT("<"),
+    LEQ("<="),
+    GEQ(">="),
+    GT(">"),
+    EQQ("=="),
+    NEQ("!="),
+    AND("&"),
+    OR("|");
+
+    private final String symbol;
+
+    Op(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Operators whose operands must both be naturals
+    public boolean isArithmetic() {
+        return this.ordinal() <= MINUS.ordinal();
+    }
+
+    public boolean isComparison() {
+        return this == LT || this == LEQ || this == GEQ || this == GT;
+    }
+
+    public boolean isEquality() {
+        return this == EQQ || this == NEQ;
+    }
+
+    public boolean isLogic() {
+        return this == AND || this == OR;
+    }
+
+    // Result of an arithmetic operator, the shared semantics used by the engines and the optimizer
+    public int apply(int left, int right) {
+        return switch (this) {
+            case POW -> (int) Math.pow(left, right);
+            case MUL -> left * right;
+            case DIV -> left / right;
+            case MOD -> left % right;
+            case SHL -> left << right;
+            case SHR -> shiftDiv(left, right);
+            case MASK -> shiftMod(left, right);
+            case SQUARE -> squares(left, right);
+            case PLUS -> left + right;
+            // Saturating subtraction, naturals can't go below zero
+            case MINUS -> Math.max(left - right, 0);
+            default -> throw new IllegalStateException("Unexpected value: " + this);
+        };
+    }
+
+    // Same as dividing by 2^k with k > 0: the shift rounds toward negative infinity, so a negative dividend is biased to round
+    // toward zero like the division
+    public static int shiftDiv(int left, int k) {
+        return (left + ((left >> 31) >>> (32 - k))) >> k;
+    }
+
+    // Same as the remainder of the division by 2^k, which takes the sign of the dividend
+    public static int shiftMod(int left, int k) {
+        int mask = (1 << k) - 1;
+        return left >= 0 ? left & mask : -(-left & mask);
+    }
+
+    // Same as the power to 2^k: the power is exact while it fits in an int and is clamped to the max value after,
+    // like the double to int conversion
+    public static int squares(int left, int k) {
+        for (int i = 0; i < k; i++) {
+            long square = (long) left * left;
+            left = square > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) square;
+        }
+        return left;
+    }
+
+    // Map the token type of the operator in the parse tree to the operation
+    public static Op fromToken(int type) {
+        return switch (type) {
+            case ImpParser.POW -> POW;
+            case ImpParser.MUL -> MUL;
+            case ImpParser.DIV -> DIV;
+            case ImpParser.MOD -> MOD;
+            case ImpParser.PLUS -> PLUS;
+            case ImpParser.MINUS -> MINUS;
+            case ImpParser.LT -> LT;
+            case ImpParser.LEQ -> LEQ;
+            case ImpParser.GEQ -> GEQ;
+            case ImpParser.GT -> GT;
+            case ImpParser.EQQ -> EQQ;
+            case ImpParser.NEQ -> NEQ;
+            case ImpParser.AND -> AND;
+            case ImpParser.OR -> OR;
+            default -> throw new IllegalStateException("Unexpected value: " + type);
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.interpreter.ir;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.example.Utils;
+import org.example.interpreter.Fun;
+import org.example.interpreter.antlr.ImpBaseVisitor;
+import org.example.interpreter.antlr.ImpParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+// Translate the parse tree in the IR, binding every variable to a slot of the frame and every call to the index of
+// the function in the function table.
+public class Resolver extends ImpBaseVisitor<Node> {
+
+    // Function indexes and number of parameters, indexed by the name of the function
+    private final HashMap<String, Integer> functions = new HashMap<>();
+    private final List<Integer> arities = new ArrayList<>();
+    // Slots of the scope being resolved, indexed by the name of the variable
+    private LinkedHashMap<String, Integer> scope = new LinkedHashMap<>();
+
+    public static IrProgram resolve(ImpParser.ProgContext ctx) {
+        return new Resolver().resolveProg(ctx);
+    }
+
+    private IrProgram resolveProg(ImpParser.ProgContext ctx) {
+        // Declare all the functions first, so they can be called before their definition
+        List<Fun> declarations = new ArrayList<>();
+        for (ImpParser.FunContext fun : ctx.fun()) {
+            String name = fun.ID(0).getText();
+            if (functions.containsKey(name)) {
+                Utils.panic(fun, "Fun " + name + " already defined.");
+            }
+            Fun declaration = new Fun(fun);
+            functions.put(name, declarations.size());
+            arities.add(declaration.getParameters().size());
+            declarations.add(declaration);
+        }
+
+        List<IrFunction> resolved = new ArrayList<>();
+        for (int i = 0; i < declarations.size(); i++) {
+            resolved.add(resolveFun(ctx.fun(i), declarations.get(i)));
+        }
+
+        scope = new LinkedHashMap<>();
+        Com main = com(ctx.com());
+        return new IrProgram(resolved, main, new ArrayList<>(scope.keySet()));
+    }
+
+    private IrFunction resolveFun(ImpParser.FunContext ctx, Fun fun) {
+        // Every function has its own frame starting with the parameters
+        scope = new LinkedHashMap<>();
+        for (String parameter : fun.getParameters()) {
+            slot(parameter);
+        }
+        Com body = fun.getBody() != null ? com(fun.getBody()) : null;
+        Exp ret = exp(fun.getRet());
+        return new IrFunction(ctx.ID(0).getText(), fun.getParameters(), new ArrayList<>(scope.keySet()), body, ret,
+                ctx.start.getLine(), ctx.start.getCharPositionInLine());
+    }
+
+    // Slot of the variable in the current scope, allocating a new one the first time the name is seen
+    private int slot(String name) {
+        return scope.computeIfAbsent(name, (k) -> scope.size());
+    }
+
+    private Com com(ImpParser.ComContext ctx) {
+        return (Com) visit(ctx);
+    }
+
+    private Exp exp(ImpParser.ExpContext ctx) {
+        return (Exp) visit(ctx);
+    }
+
+    private static int line(ParserRuleContext ctx) {
+        return ctx.start.getLine();
+    }
+
+    private static int column(ParserRuleContext ctx) {
+        return ctx.start.getCharPositionInLine();
+    }
+
+    @Override
+    public Com visitIf(ImpParser.IfContext ctx) {
+        return new Com.If(line(ctx), column(ctx), exp(ctx.exp()), com(ctx.com(0)), com(ctx.com(1)));
+    }
+
+    @Override
+    public Com visitAssign(ImpParser.AssignContext ctx) {
+        String id = ctx.ID().getText();
+        // Resolve the expression first, the value is computed before the variable is bound
+        Exp exp = exp(ctx.exp());
+        return new Com.Assign(line(ctx), column(ctx), id, slot(id), exp);
+    }
+
+    @Override
+    public Com visitSkip(ImpParser.SkipContext ctx) {
+        return new Com.Skip(line(ctx), column(ctx));
+    }
+
+    @Override
+    public Com visitSeq(ImpParser.SeqContext ctx) {
+        List<Com> commands = new ArrayList<>();
+        for (ImpParser.ComContext child : ctx.com()) {
+            Com com = com(child);
+            if (com instanceof Com.Seq) {
+                commands.addAll(((Com.Seq) com).getCommands());
+            } else {
+                commands.add(com);
+            }
+        }
+        return new Com.Seq(line(ctx), column(ctx), commands);
+    }
+
+    @Override
+    public Com visitWhile(ImpParser.WhileContext ctx) {
+        return new Com.While(line(ctx), column(ctx), exp(ctx.exp()), com(ctx.com()));
+    }
+
+    @Override
+    public Com visitOut(ImpParser.OutContext ctx) {
+        return new Com.Out(line(ctx), column(ctx), exp(ctx.exp()));
+    }
+
+    @Override
+    public Exp visitNat(ImpParser.NatContext ctx) {
+        return new Exp.Nat(line(ctx), column(ctx), Integer.parseInt(ctx.NAT().getText()));
+    }
+
+    @Override
+    public Exp visitBool(ImpParser.BoolContext ctx) {
+        return new Exp.Bool(line(ctx), column(ctx), Boolean.parseBoolean(ctx.BOOL().getText()));
+    }
+
+    @Override
+    public Exp visitParExp(ImpParser.ParExpContext ctx) {
+        return exp(ctx.exp());
+    }
+
+    @Override
+    public Exp visitPow(ImpParser.PowContext ctx) {
+        return new Exp.Binary(line(ctx), column(ctx), Op.POW, exp(ctx.exp(0)), exp(ctx.exp(1)));
+    }
+
+    @Override
+    public Exp visitNot(ImpParser.NotContext ctx) {
+        return new Exp.Not(line(ctx), column(ctx), exp(ctx.exp()));
+    }
+
+    @Override
+    public Exp visitDivMulMod(ImpParser.DivMulModContext ctx) {
+        return binary(ctx, ctx.op.getType(), ctx.exp(0), ctx.exp(1));
+    }
+
+    @Override
+    public Exp visitPlusMinus(ImpParser.PlusMinusContext ctx) {
+        return binary(ctx, ctx.op.getType(), ctx.exp(0), ctx.exp(1));
+    }
+
+    @Override
+    public Exp visitCmpExp(ImpParser.CmpExpContext ctx) {
+        return binary(ctx, ctx.op.getType(), ctx.exp(0), ctx.exp(1));
+    }
+
+    @Override
+    public Exp visitEqExp(ImpParser.EqExpContext ctx) {
+        return binary(ctx, ctx.op.getType(), ctx.exp(0), ctx.exp(1));
+    }
+
+    @Override
+    public Exp visitLogicExp(ImpParser.LogicExpContext ctx) {
+        return binary(ctx, ctx.op.getType(), ctx.exp(0), ctx.exp(1));
+    }
+
+    private Exp binary(ParserRuleContext ctx, int op, ImpParser.ExpContext left, ImpParser.ExpContext right) {
+        return new Exp.Binary(line(ctx), column(ctx), Op.fromToken(op), exp(left), exp(right));
+    }
+
+    @Override
+    public Exp visitId(ImpParser.IdContext ctx) {
+        String id = ctx.ID().getText();
+        return new Exp.Var(line(ctx), column(ctx), id, slot(id));
+    }
+
+    @Override
+    public Exp visitCall(ImpParser.CallContext ctx) {
+        String name = ctx.ID().getText();
+        // Check if it was declared and that the number of arguments is the same of the parameters
+        if (!functions.containsKey(name)) {
+            Utils.panic(ctx, "Function " + name + " used but never declared");
+        }
+        int index = functions.get(name);
+        if (ctx.exp().size() != arities.get(index)) {
+            Utils.panic(ctx, "Function " + name + " called with the wrong number of arguments");
+        }
+
+        List<Exp> args = new ArrayList<>();
+        for (ImpParser.ExpContext arg : ctx.exp()) {
+            args.add(exp(arg));
+        }
+        return new Exp.Call(line(ctx), column(ctx), name, index, args);
+    }
+}
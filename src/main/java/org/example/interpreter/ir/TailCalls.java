@@ -0,0 +1,93 @@
+package org.example.interpreter.ir;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Find the calls in tail position of the functions. A function can only return an expression, so the tail calls
+// are the assignments of a call to the returned variable that are the last command executed by the body: the value
+// of the call is the value returned and the caller frame is not needed anymore when the callee runs.
+public final class TailCalls {
+
+    private TailCalls() {
+    }
+
+    // The assignments in tail position of the function, compared by identity
+    public static Set<Com.Assign> of(IrFunction fun) {
+        Set<Com.Assign> calls = new HashSet<>();
+        if (fun.getBody() != null && fun.getRet() instanceof Exp.Var) {
+            collect(fun.getBody(), ((Exp.Var) fun.getRet()).getSlot(), calls);
+        }
+        return calls;
+    }
+
+    private static void collect(Com com, int slot, Set<Com.Assign> calls) {
+        if (com instanceof Com.Assign) {
+            Com.Assign assign = (Com.Assign) com;
+            if (assign.getSlot() == slot && assign.getExp() instanceof Exp.Call) {
+                calls.add(assign);
+            }
+        } else if (com instanceof Com.Seq) {
+            List<Com> commands = ((Com.Seq) com).getCommands();
+            collect(commands.get(commands.size() - 1), slot, calls);
+        } else if (com instanceof Com.If) {
+            collect(((Com.If) com).getThen(), slot, calls);
+            collect(((Com.If) com).getOtherwise(), slot, calls);
+        }
+    }
+
+    // Groups of functions calling each other in a cycle of tail calls between different functions, in the order of
+    // the functions. A recursion through these calls can go as deep as needed without growing the caller frames, so
+    // the group has to be run as a single loop. The functions outside the cycles are not in any group.
+    public static List<int[]> cycles(IrProgram program) {
+        int count = program.getFunctions().size();
+        BitSet[] callees = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            callees[i] = new BitSet(count);
+            for (Com.Assign call : of(program.getFunction(i))) {
+                int callee = ((Exp.Call) call.getExp()).getFunction();
+                if (callee != i) {
+                    callees[i].set(callee);
+                }
+            }
+        }
+
+        // A function is in the cycle of another one if each one reaches the other through tail calls
+        BitSet[] reached = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            reached[i] = callees[i].isEmpty() ? callees[i] : reached(callees, i);
+        }
+        List<int[]> cycles = new ArrayList<>();
+        BitSet grouped = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            if (grouped.get(i) || !reached[i].get(i)) {
+                continue;
+            }
+            BitSet cycle = new BitSet(count);
+            for (int fun = reached[i].nextSetBit(0); fun >= 0; fun = reached[i].nextSetBit(fun + 1)) {
+                if (reached[fun].get(i)) {
+                    cycle.set(fun);
+                }
+            }
+            grouped.or(cycle);
+            cycles.add(cycle.stream().toArray());
+        }
+        return cycles;
+    }
+
+    // The functions reached from the given one through at least one call
+    private static BitSet reached(BitSet[] callees, int from) {
+        BitSet visited = new BitSet(callees.length);
+        BitSet pending = (BitSet) callees[from].clone();
+        for (int fun = pending.nextSetBit(0); fun >= 0; fun = pending.nextSetBit(0)) {
+            pending.clear(fun);
+            visited.set(fun);
+            BitSet next = (BitSet) callees[fun].clone();
+            next.andNot(visited);
+            pending.or(next);
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.interpreter.ir;
+
+public enum Type {
+    NAT("natural"),
+    BOOL("boolean");
+
+    private final String description;
+
+    Type(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
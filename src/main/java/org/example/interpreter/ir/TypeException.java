@@ -0,0 +1,22 @@
+package org.example.interpreter.ir;
+
+// A program that can't be given static types, with the position of the offending node
+public class TypeException extends RuntimeException {
+
+    private final int line;
+    private final int column;
+
+    public TypeException(Node node, String message) {
+        super(message);
+        this.line = node.getLine();
+        this.column = node.getColumn();
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
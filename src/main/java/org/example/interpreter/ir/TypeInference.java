@@ -0,0 +1,205 @@
+package org.example.interpreter.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Infer the types of the variables and of the function returns by unification. Every slot of every scope and
+// every function return is a type variable, the operators and the literals bind them to nat or bool. Variables
+// that are never constrained default to nat.
+public class TypeInference implements IrVisitor<Integer> {
+
+    private final IrProgram program;
+    // Union find over the type variables and the type bound to each root, null if still unknown
+    private final List<Integer> parents = new ArrayList<>();
+    private final List<Type> bounds = new ArrayList<>();
+    // Type variables of the function returns and of the first slot of every function scope
+    private final int[] returns;
+    private final int[] scopes;
+    // Type variable of the first slot of the scope being visited
+    private int scope;
+
+    private TypeInference(IrProgram program) {
+        this.program = program;
+        this.returns = new int[program.getFunctions().size()];
+        this.scopes = new int[program.getFunctions().size()];
+    }
+
+    public static Typing infer(IrProgram program) {
+        return new TypeInference(program).infer();
+    }
+
+    private Typing infer() {
+        List<IrFunction> functions = program.getFunctions();
+        for (int i = 0; i < functions.size(); i++) {
+            returns[i] = fresh(null);
+            scopes[i] = fresh(functions.get(i).getSlotCount());
+        }
+        int main = fresh(program.getSlotCount());
+
+        // Every function is visited once, the constraints between them are solved by the union find
+        for (int i = 0; i < functions.size(); i++) {
+            IrFunction fun = functions.get(i);
+            scope = scopes[i];
+            if (fun.getBody() != null) {
+                fun.getBody().accept(this);
+            }
+            unify(fun.getRet().accept(this), returns[i], fun.getRet());
+        }
+        scope = main;
+        program.getMain().accept(this);
+
+        List<Type[]> slots = new ArrayList<>();
+        for (int i = 0; i < functions.size(); i++) {
+            slots.add(types(scopes[i], functions.get(i).getSlotCount()));
+        }
+        Type[] ret = new Type[functions.size()];
+        for (int i = 0; i < functions.size(); i++) {
+            ret[i] = type(returns[i]);
+        }
+        return new Typing(slots, types(main, program.getSlotCount()), ret);
+    }
+
+    private int fresh(Type type) {
+        parents.add(parents.size());
+        bounds.add(type);
+        return parents.size() - 1;
+    }
+
+    // Allocate count consecutive unbound variables, returning the first
+    private int fresh(int count) {
+        int first = parents.size();
+        for (int i = 0; i < count; i++) {
+            fresh(null);
+        }
+        return first;
+    }
+
+    private int find(int var) {
+        while (parents.get(var) != var) {
+            parents.set(var, parents.get(parents.get(var)));
+            var = parents.get(var);
+        }
+        return var;
+    }
+
+    // Unify the type of the node with the expected one, the error reports the type that was expected
+    private void unify(int actual, int expected, Node node) {
+        int a = find(actual);
+        int e = find(expected);
+        if (a == e) {
+            return;
+        }
+        Type ta = bounds.get(a);
+        Type te = bounds.get(e);
+        if (ta != null && te != null && ta != te) {
+            throw new TypeException(node, "Type mismatch, " + te.getDescription() + " expression expected.");
+        }
+        parents.set(a, e);
+        if (te == null) {
+            bounds.set(e, ta);
+        }
+    }
+
+    private void expect(Exp exp, Type type) {
+        unify(exp.accept(this), fresh(type), exp);
+    }
+
+    private Type type(int var) {
+        Type type = bounds.get(find(var));
+        return type != null ? type : Type.NAT;
+    }
+
+    private Type[] types(int first, int count) {
+        Type[] types = new Type[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = type(first + i);
+        }
+        return types;
+    }
+
+    @Override
+    public Integer visitNat(Exp.Nat exp) {
+        return fresh(Type.NAT);
+    }
+
+    @Override
+    public Integer visitBool(Exp.Bool exp) {
+        return fresh(Type.BOOL);
+    }
+
+    @Override
+    public Integer visitVar(Exp.Var exp) {
+        return scope + exp.getSlot();
+    }
+
+    @Override
+    public Integer visitBinary(Exp.Binary exp) {
+        Op op = exp.getOp();
+        if (op.isEquality()) {
+            int left = exp.getLeft().accept(this);
+            unify(exp.getRight().accept(this), left, exp.getRight());
+            return fresh(Type.BOOL);
+        }
+        Type operand = op.isLogic() ? Type.BOOL : Type.NAT;
+        expect(exp.getLeft(), operand);
+        expect(exp.getRight(), operand);
+        return fresh(op.isArithmetic() ? Type.NAT : Type.BOOL);
+    }
+
+    @Override
+    public Integer visitNot(Exp.Not exp) {
+        expect(exp.getExp(), Type.BOOL);
+        return fresh(Type.BOOL);
+    }
+
+    @Override
+    public Integer visitCall(Exp.Call exp) {
+        // The parameters are the first slots of the function scope
+        int parameters = scopes[exp.getFunction()];
+        for (int i = 0; i < exp.getArgs().size(); i++) {
+            Exp arg = exp.getArgs().get(i);
+            unify(arg.accept(this), parameters + i, arg);
+        }
+        return returns[exp.getFunction()];
+    }
+
+    @Override
+    public Integer visitSkip(Com.Skip com) {
+        return null;
+    }
+
+    @Override
+    public Integer visitAssign(Com.Assign com) {
+        unify(com.getExp().accept(this), scope + com.getSlot(), com.getExp());
+        return null;
+    }
+
+    @Override
+    public Integer visitSeq(Com.Seq com) {
+        for (Com command : com.getCommands()) {
+            command.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Integer visitIf(Com.If com) {
+        expect(com.getGuard(), Type.BOOL);
+        com.getThen().accept(this);
+        com.getOtherwise().accept(this);
+        return null;
+    }
+
+    @Override
+    public Integer visitWhile(Com.While com) {
+        expect(com.getGuard(), Type.BOOL);
+        com.getBody().accept(this);
+        return null;
+    }
+
+    @Override
+    public Integer visitOut(Com.Out com) {
+        com.getExp().accept(this);
+        return null;
+    }
+}
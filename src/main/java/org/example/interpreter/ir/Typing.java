@@ -0,0 +1,44 @@
+package org.example.interpreter.ir;
+
+import java.util.List;
+
+// Static types of a program: every variable has a single type in its scope and every function a return type
+public class Typing {
+
+    private final List<Type[]> functionSlots;
+    private final Type[] mainSlots;
+    private final Type[] returns;
+
+    public Typing(List<Type[]> functionSlots, Type[] mainSlots, Type[] returns) {
+        this.functionSlots = List.copyOf(functionSlots);
+        this.mainSlots = mainSlots;
+        this.returns = returns;
+    }
+
+    public Type[] getSlots(int function) {
+        return functionSlots.get(function);
+    }
+
+    public Type[] getMainSlots() {
+        return mainSlots;
+    }
+
+    public Type getReturn(int function) {
+        return returns[function];
+    }
+
+    // Type of an expression in a scope with the given slot types
+    public Type typeOf(Exp exp, Type[] slots) {
+        if (exp instanceof Exp.Nat) {
+            return Type.NAT;
+        } else if (exp instanceof Exp.Bool || exp instanceof Exp.Not) {
+            return Type.BOOL;
+        } else if (exp instanceof Exp.Var) {
+            return slots[((Exp.Var) exp).getSlot()];
+        } else if (exp instanceof Exp.Call) {
+            return returns[((Exp.Call) exp).getFunction()];
+        }
+        Op op = ((Exp.Binary) exp).getOp();
+        return op.isArithmetic() ? Type.NAT : Type.BOOL;
+    }
+}
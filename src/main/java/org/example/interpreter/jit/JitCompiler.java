@@ -0,0 +1,475 @@
+package org.example.interpreter.jit;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.DefiniteAssignment;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.Node;
+import org.example.interpreter.ir.Op;
+import org.example.interpreter.ir.Type;
+import org.example.interpreter.ir.TypeException;
+import org.example.interpreter.ir.TailCalls;
+import org.example.interpreter.ir.TypeInference;
+import org.example.interpreter.ir.Typing;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodTooLargeException;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+// Compile a statically typed program to JVM bytecode loaded as a hidden class. Every function becomes a static
+// method and the top level command the static run method, naturals are ints and booleans are booleans. The
+// variables are locals of the method, the ones that could be read before being assigned get an extra flag local.
+// The functions in a cycle of tail calls are compiled together in a single method, where a tail call is a jump to
+// the start of the callee: the method of every function of the cycle only calls it with the index of the function.
+public class JitCompiler implements IrVisitor<Void> {
+
+    private static final String NAME = "org/example/interpreter/jit/HaveFunProgram";
+    private static final String RUNTIME = "org/example/interpreter/jit/JitRuntime";
+    private static final String OP = "org/example/interpreter/ir/Op";
+
+    private final IrProgram program;
+    private final Typing typing;
+    private final ClassWriter writer;
+
+    // State of the method being generated
+    private MethodVisitor mv;
+    private Type[] slots;
+    private Set<Exp.Var> unassigned;
+    private BitSet flagged;
+    // First local of the slots, of their assignment flags and of the loop counters
+    private int base;
+    private int flags;
+    // Locals counting the iterations of the loops, one for every level of nesting
+    private int counters;
+    private int loops;
+    // Start of the functions compiled in the method, where a tail call to them jumps after setting the parameters
+    private final Label[] entries;
+    private Set<Com.Assign> tailCalls;
+
+    private JitCompiler(IrProgram program, Typing typing) {
+        this.program = program;
+        this.typing = typing;
+        this.writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        this.entries = new Label[program.getFunctions().size()];
+    }
+
+    // Compile the program, returns null if it can't be statically typed or a function is too large for a method
+    public static @Nullable JitProgram compile(IrProgram program) {
+        Typing typing;
+        try {
+            typing = TypeInference.infer(program);
+        } catch (TypeException e) {
+            return null;
+        }
+        return compile(program, typing);
+    }
+
+    // Compile a program with known types, returns null if a function is too large for a method
+    public static @Nullable JitProgram compile(IrProgram program, Typing typing) {
+        byte[] bytes;
+        try {
+            bytes = new JitCompiler(program, typing).generate();
+        } catch (MethodTooLargeException e) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodHandle run = lookup.findStatic(lookup.lookupClass(), "run",
+                    MethodType.methodType(void.class, JitRuntime.class));
+            return new JitProgram(run);
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] generate() {
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, NAME, null,
+                "java/lang/Object", null);
+
+        List<IrFunction> functions = program.getFunctions();
+        BitSet grouped = new BitSet(functions.size());
+        for (int[] cycle : TailCalls.cycles(program)) {
+            cycle(cycle);
+            for (int fun : cycle) {
+                grouped.set(fun);
+            }
+        }
+        for (int i = 0; i < functions.size(); i++) {
+            if (!grouped.get(i)) {
+                method(methodName(functions.get(i)), descriptor(i));
+                function(i, 1, typing.getSlots(i).length);
+                end();
+            }
+        }
+
+        tailCalls = Set.of();
+        method("run", "(L" + RUNTIME + ";)V");
+        start(typing.getMainSlots(), 0, DefiniteAssignment.maybeUnassigned(program), 1,
+                typing.getMainSlots().length);
+        program.getMain().accept(this);
+        mv.visitInsn(Opcodes.RETURN);
+        end();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static String methodName(IrFunction fun) {
+        return "f_" + fun.getName();
+    }
+
+    private static String descriptor(Type type) {
+        return type == Type.NAT ? "I" : "Z";
+    }
+
+    private String descriptor(int function) {
+        StringBuilder builder = new StringBuilder("(L" + RUNTIME + ";");
+        Type[] types = typing.getSlots(function);
+        for (int i = 0; i < program.getFunction(function).getArity(); i++) {
+            builder.append(descriptor(types[i]));
+        }
+        return builder.append(")").append(descriptor(typing.getReturn(function))).toString();
+    }
+
+    // Compile the functions of a cycle of tail calls in a method taking the index of the function to run and the
+    // parameters of the longest one as ints, the locals of the functions overlap since only one runs at a time. The
+    // method of every function calls it with its own index, all the functions of a cycle return the same type.
+    private void cycle(int[] cycle) {
+        String name = "t_" + program.getFunction(cycle[0]).getName();
+        int arity = 0;
+        int width = 0;
+        for (int fun : cycle) {
+            arity = Math.max(arity, program.getFunction(fun).getArity());
+            width = Math.max(width, typing.getSlots(fun).length);
+        }
+        String descriptor = "(L" + RUNTIME + ";I" + "I".repeat(arity) + ")" + descriptor(typing.getReturn(cycle[0]));
+
+        for (int i = 0; i < cycle.length; i++) {
+            int fun = cycle[i];
+            method(methodName(program.getFunction(fun)), descriptor(fun));
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            pushInt(i);
+            for (int j = 0; j < arity; j++) {
+                if (j < program.getFunction(fun).getArity()) {
+                    mv.visitVarInsn(Opcodes.ILOAD, 1 + j);
+                } else {
+                    mv.visitInsn(Opcodes.ICONST_0);
+                }
+            }
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, NAME, name, descriptor, false);
+            mv.visitInsn(Opcodes.IRETURN);
+            end();
+        }
+
+        method(name, descriptor);
+        Label[] labels = new Label[cycle.length];
+        for (int i = 0; i < cycle.length; i++) {
+            labels[i] = entries[cycle[i]] = new Label();
+        }
+        mv.visitVarInsn(Opcodes.ILOAD, 1);
+        mv.visitTableSwitchInsn(0, cycle.length - 1, labels[0], labels);
+        for (int fun : cycle) {
+            function(fun, 2, width);
+        }
+        end();
+        for (int fun : cycle) {
+            entries[fun] = null;
+        }
+    }
+
+    // Compile the body and the return of a function, from its entry if it has one already
+    private void function(int index, int base, int width) {
+        IrFunction fun = program.getFunction(index);
+        if (entries[index] == null) {
+            entries[index] = new Label();
+        }
+        mv.visitLabel(entries[index]);
+        tailCalls = TailCalls.of(fun);
+        start(typing.getSlots(index), fun.getArity(), DefiniteAssignment.maybeUnassigned(fun), base, width);
+        if (fun.getBody() != null) {
+            fun.getBody().accept(this);
+        }
+        fun.getRet().accept(this);
+        mv.visitInsn(Opcodes.IRETURN);
+        if (base == 1) {
+            entries[index] = null;
+        }
+    }
+
+    private void method(String name, String descriptor) {
+        this.mv = writer.visitMethod(Opcodes.ACC_STATIC | Opcodes.ACC_PUBLIC, name, descriptor, null, null);
+        mv.visitCode();
+    }
+
+    // Start the code of a function or of the top level command: the slots start at the base local, followed by the
+    // assignment flags and the loop counters, each of the given width
+    private void start(Type[] slots, int arity, Set<Exp.Var> unassigned, int base, int width) {
+        this.slots = slots;
+        this.unassigned = unassigned;
+        this.flagged = new BitSet();
+        this.base = base;
+        this.flags = base + width;
+        this.counters = flags + width;
+        this.loops = 0;
+
+        // The verifier requires every local to be assigned before it's loaded
+        for (int i = arity; i < slots.length; i++) {
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, base + i);
+        }
+        for (Exp.Var var : unassigned) {
+            flagged.set(var.getSlot());
+        }
+        for (int slot = flagged.nextSetBit(0); slot >= 0; slot = flagged.nextSetBit(slot + 1)) {
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, flags + slot);
+        }
+    }
+
+    private void end() {
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    // Push 1 if the comparison with the given jump opcode holds, 0 otherwise
+    private void compare(int opcode) {
+        Label holds = new Label();
+        Label end = new Label();
+        mv.visitJumpInsn(opcode, holds);
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitJumpInsn(Opcodes.GOTO, end);
+        mv.visitLabel(holds);
+        mv.visitInsn(Opcodes.ICONST_1);
+        mv.visitLabel(end);
+    }
+
+    private void line(Com com) {
+        Label label = new Label();
+        mv.visitLabel(label);
+        mv.visitLineNumber(com.getLine(), label);
+    }
+
+    @Override
+    public Void visitNat(Exp.Nat exp) {
+        pushInt(exp.getValue());
+        return null;
+    }
+
+    @Override
+    public Void visitBool(Exp.Bool exp) {
+        mv.visitInsn(exp.getValue() ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+        return null;
+    }
+
+    @Override
+    public Void visitVar(Exp.Var exp) {
+        if (unassigned.contains(exp)) {
+            Label assigned = new Label();
+            mv.visitVarInsn(Opcodes.ILOAD, flags + exp.getSlot());
+            mv.visitJumpInsn(Opcodes.IFNE, assigned);
+            mv.visitLdcInsn(exp.getName());
+            pushInt(exp.getLine());
+            pushInt(exp.getColumn());
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, RUNTIME, "unassigned", "(Ljava/lang/String;II)V", false);
+            mv.visitLabel(assigned);
+        }
+        mv.visitVarInsn(Opcodes.ILOAD, base + exp.getSlot());
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(Exp.Binary exp) {
+        // Both operands are always evaluated, like in the interpreter there is no short circuit
+        exp.getLeft().accept(this);
+        if (exp.getOp() == Op.POW) {
+            mv.visitInsn(Opcodes.I2D);
+        }
+        exp.getRight().accept(this);
+
+        switch (exp.getOp()) {
+            case POW -> {
+                mv.visitInsn(Opcodes.I2D);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false);
+                mv.visitInsn(Opcodes.D2I);
+            }
+            case MUL -> mv.visitInsn(Opcodes.IMUL);
+            case DIV -> mv.visitInsn(Opcodes.IDIV);
+            case MOD -> mv.visitInsn(Opcodes.IREM);
+            case SHL -> mv.visitInsn(Opcodes.ISHL);
+            case SHR -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, OP, "shiftDiv", "(II)I", false);
+            case MASK -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, OP, "shiftMod", "(II)I", false);
+            case SQUARE -> mv.visitMethodInsn(Opcodes.INVOKESTATIC, OP, "squares", "(II)I", false);
+            case PLUS -> mv.visitInsn(Opcodes.IADD);
+            case MINUS -> {
+                // Saturating subtraction, naturals can't go below zero
+                mv.visitInsn(Opcodes.ISUB);
+                mv.visitInsn(Opcodes.ICONST_0);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "max", "(II)I", false);
+            }
+            case LT -> compare(Opcodes.IF_ICMPLT);
+            case LEQ -> compare(Opcodes.IF_ICMPLE);
+            case GEQ -> compare(Opcodes.IF_ICMPGE);
+            case GT -> compare(Opcodes.IF_ICMPGT);
+            case EQQ -> compare(Opcodes.IF_ICMPEQ);
+            case NEQ -> compare(Opcodes.IF_ICMPNE);
+            case AND -> mv.visitInsn(Opcodes.IAND);
+            case OR -> mv.visitInsn(Opcodes.IOR);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitNot(Exp.Not exp) {
+        exp.getExp().accept(this);
+        mv.visitInsn(Opcodes.ICONST_1);
+        mv.visitInsn(Opcodes.IXOR);
+        return null;
+    }
+
+    @Override
+    public Void visitCall(Exp.Call exp) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        for (Exp arg : exp.getArgs()) {
+            arg.accept(this);
+        }
+        IrFunction fun = program.getFunction(exp.getFunction());
+        runtime("enter", exp);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, NAME, methodName(fun), descriptor(exp.getFunction()), false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, "exit", "()V", false);
+        return null;
+    }
+
+    // Call of a hook of the runtime with the position of the node, the stack is left as it was
+    private void runtime(String method, Node node) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(node.getLine());
+        pushInt(node.getColumn());
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, method, "(II)V", false);
+    }
+
+    @Override
+    public Void visitSkip(Com.Skip com) {
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Com.Assign com) {
+        line(com);
+        if (tailCalls.contains(com) && entries[((Exp.Call) com.getExp()).getFunction()] != null) {
+            // Tail call to a function of the method: the arguments become its parameters and it starts again
+            Exp.Call call = (Exp.Call) com.getExp();
+            for (Exp arg : call.getArgs()) {
+                arg.accept(this);
+            }
+            for (int i = call.getArgs().size() - 1; i >= 0; i--) {
+                mv.visitVarInsn(Opcodes.ISTORE, base + i);
+            }
+            runtime("tailCall", call);
+            mv.visitJumpInsn(Opcodes.GOTO, entries[call.getFunction()]);
+            return null;
+        }
+        com.getExp().accept(this);
+        mv.visitVarInsn(Opcodes.ISTORE, base + com.getSlot());
+        if (flagged.get(com.getSlot())) {
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitVarInsn(Opcodes.ISTORE, flags + com.getSlot());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitSeq(Com.Seq com) {
+        for (Com command : com.getCommands()) {
+            command.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Com.If com) {
+        line(com);
+        Label otherwise = new Label();
+        Label end = new Label();
+        com.getGuard().accept(this);
+        mv.visitJumpInsn(Opcodes.IFEQ, otherwise);
+        com.getThen().accept(this);
+        mv.visitJumpInsn(Opcodes.GOTO, end);
+        mv.visitLabel(otherwise);
+        com.getOtherwise().accept(this);
+        mv.visitLabel(end);
+        return null;
+    }
+
+    // The iterations are counted in a local and added to the meter of the runtime in batches, so the counter of
+    // the loop stays in a register. No tail call is in a loop, so a loop always ends at its guard or with a panic.
+    @Override
+    public Void visitWhile(Com.While com) {
+        line(com);
+        int counter = counters + loops++;
+        Label start = new Label();
+        Label end = new Label();
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, counter);
+        mv.visitLabel(start);
+        com.getGuard().accept(this);
+        mv.visitJumpInsn(Opcodes.IFEQ, end);
+        com.getBody().accept(this);
+        mv.visitIincInsn(counter, 1);
+        mv.visitVarInsn(Opcodes.ILOAD, counter);
+        pushInt(Meter.CHECK_INTERVAL);
+        mv.visitJumpInsn(Opcodes.IF_ICMPLT, start);
+        iterations(counter, com);
+        mv.visitInsn(Opcodes.ICONST_0);
+        mv.visitVarInsn(Opcodes.ISTORE, counter);
+        mv.visitJumpInsn(Opcodes.GOTO, start);
+        mv.visitLabel(end);
+        iterations(counter, com);
+        loops--;
+        return null;
+    }
+
+    // Add the iterations counted in the local to the meter
+    private void iterations(int counter, Com.While com) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ILOAD, counter);
+        pushInt(com.getLine());
+        pushInt(com.getColumn());
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, "iterations", "(III)V", false);
+    }
+
+    @Override
+    public Void visitOut(Com.Out com) {
+        line(com);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        com.getExp().accept(this);
+        String descriptor = "(" + descriptor(typing.typeOf(com.getExp(), slots)) + ")V";
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RUNTIME, "out", descriptor, false);
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.interpreter.jit;
+
+import java.lang.invoke.MethodHandle;
+
+// A program compiled to a hidden class, ready to be run
+public class JitProgram {
+
+    // Handle to the static run(JitRuntime) method of the hidden class
+    private final MethodHandle run;
+
+    JitProgram(MethodHandle run) {
+        this.run = run;
+    }
+
+    public void run(JitRuntime runtime) {
+        try {
+            run.invokeExact(runtime);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        } finally {
+            runtime.flush();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.interpreter.jit;
+
+import org.example.Utils;
+import org.example.interpreter.Meter;
+import org.example.interpreter.output.OutputSink;
+
+// Services called by the generated code, an instance is passed to every generated method
+public class JitRuntime {
+
+    // Program output, flushed at the end of the program
+    private final OutputSink out;
+    // Calls and loop iterations of the run
+    private final Meter meter;
+
+    public JitRuntime(OutputSink out) {
+        this(out, new Meter());
+    }
+
+    public JitRuntime(OutputSink out, Meter meter) {
+        this.out = out;
+        this.meter = meter;
+    }
+
+    // Called around every call, on the self tail calls and after a batch of iterations of a loop, with the position
+    // of the call or of the loop
+    public void enter(int line, int column) {
+        meter.enter(line, column);
+    }
+
+    public void exit() {
+        meter.exit();
+    }
+
+    public void tailCall(int line, int column) {
+        meter.tailCall(line, column);
+    }
+
+    public void iterations(int count, int line, int column) {
+        meter.iterations(count, line, column);
+    }
+
+    public void out(int value) {
+        out.writeInt(value);
+    }
+
+    public void out(boolean value) {
+        out.writeBool(value);
+    }
+
+    public void flush() {
+        out.flush();
+    }
+
+    // Called when a variable that is not definitely assigned is read before its first assignment
+    public static void unassigned(String name, int line, int column) {
+        Utils.panic(line, column, "Variable " + name + " used but never instantiated");
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.ir.Op;
+
+// Operators on naturals. The operands can only be naturals, so they are always executed as ints and a value of
+// the other type is a type error: the specialization happens in the operands.
+public class ArithmeticNode extends BinaryNode {
+
+    public ArithmeticNode(int line, int column, Op op, ExpNode left, ExpNode right) {
+        super(line, column, op, left, right);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return executeInt(frame);
+    }
+
+    @Override
+    public int executeInt(Frame frame) {
+        int l = left.executeNat(frame);
+        int r = right.executeNat(frame);
+        return switch (op) {
+            case POW -> (int) Math.pow(l, r);
+            case MUL -> l * r;
+            case DIV -> l / r;
+            case MOD -> l % r;
+            case SHL -> l << r;
+            case SHR, MASK, SQUARE -> op.apply(l, r);
+            case PLUS -> l + r;
+            case MINUS -> Math.max(l - r, 0);
+            default -> throw new IllegalStateException("Unexpected value: " + op);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.interpreter.nodes;
+
+// Write of a value in a slot of a frame, used for the assignments and to pass the arguments of a call. It
+// specializes on the type of the first value written and goes generic when the value has the other type.
+public abstract class AssignNode extends ComNode {
+
+    protected final int slot;
+    protected ExpNode value;
+
+    protected AssignNode(int line, int column, int slot, ExpNode value) {
+        super(line, column);
+        this.slot = slot;
+        this.value = adopt(value);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (value == oldChild) {
+            value = (ExpNode) newChild;
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        write(frame, frame);
+    }
+
+    // Evaluate the value in the frame and write it in the target one
+    public abstract void write(Frame frame, Frame target);
+
+    // Replace the node with the generic write and store the value already computed
+    protected void generalize(Frame target, Object result) {
+        if (!isReplaced()) {
+            replace(new Generic(line, column, slot, value));
+        }
+        target.set(slot, result);
+    }
+
+    public static final class Uninitialized extends AssignNode {
+
+        public Uninitialized(int line, int column, int slot, ExpNode value) {
+            super(line, column, slot, value);
+        }
+
+        @Override
+        public void write(Frame frame, Frame target) {
+            Object result = value.execute(frame);
+            target.set(slot, result);
+            if (isReplaced()) {
+                return;
+            }
+            if (result instanceof Integer) {
+                replace(new Int(line, column, slot, value));
+            } else {
+                replace(new Bool(line, column, slot, value));
+            }
+        }
+    }
+
+    public static final class Int extends AssignNode {
+
+        public Int(int line, int column, int slot, ExpNode value) {
+            super(line, column, slot, value);
+        }
+
+        @Override
+        public void write(Frame frame, Frame target) {
+            try {
+                target.setInt(slot, value.executeInt(frame));
+            } catch (UnexpectedResultException e) {
+                generalize(target, e.getResult());
+            }
+        }
+    }
+
+    public static final class Bool extends AssignNode {
+
+        public Bool(int line, int column, int slot, ExpNode value) {
+            super(line, column, slot, value);
+        }
+
+        @Override
+        public void write(Frame frame, Frame target) {
+            try {
+                target.setBool(slot, value.executeBool(frame));
+            } catch (UnexpectedResultException e) {
+                generalize(target, e.getResult());
+            }
+        }
+    }
+
+    public static final class Generic extends AssignNode {
+
+        public Generic(int line, int column, int slot, ExpNode value) {
+            super(line, column, slot, value);
+        }
+
+        @Override
+        public void write(Frame frame, Frame target) {
+            target.set(slot, value.execute(frame));
+        }
+    }
+}
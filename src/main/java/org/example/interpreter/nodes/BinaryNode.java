@@ -0,0 +1,26 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.ir.Op;
+
+public abstract class BinaryNode extends ExpNode {
+
+    protected final Op op;
+    protected ExpNode left;
+    protected ExpNode right;
+
+    protected BinaryNode(int line, int column, Op op, ExpNode left, ExpNode right) {
+        super(line, column);
+        this.op = op;
+        this.left = adopt(left);
+        this.right = adopt(right);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (left == oldChild) {
+            left = (ExpNode) newChild;
+        } else if (right == oldChild) {
+            right = (ExpNode) newChild;
+        }
+    }
+}
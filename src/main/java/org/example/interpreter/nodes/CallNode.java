@@ -0,0 +1,81 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.Meter;
+
+import java.util.List;
+
+// Call of a function. The arguments are written in the new frame by assignment nodes to the parameter slots, so
+// they specialize like the assignments, and the typed executions are forwarded to the return expression of the
+// callee. The tail calls in the body of the callee are executed here, so the last callee could be another function.
+public class CallNode extends ExpNode {
+
+    // Function table of the program, filled when all the functions are built
+    private final FunctionNode[] functions;
+    private final int function;
+    private final AssignNode[] args;
+    private final Meter meter;
+
+    public CallNode(int line, int column, FunctionNode[] functions, int function, List<AssignNode> args,
+                    Meter meter) {
+        super(line, column);
+        this.meter = meter;
+        this.functions = functions;
+        this.function = function;
+        this.args = new AssignNode[args.size()];
+        for (int i = 0; i < args.size(); i++) {
+            this.args[i] = adopt(args.get(i));
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == oldChild) {
+                args[i] = (AssignNode) newChild;
+            }
+        }
+    }
+
+    // Evaluate the arguments in the caller frame and execute the body, returning the frame of the function whose
+    // return expression gives the result
+    private Frame call(Frame frame) {
+        Frame callee = new Frame(functions[function]);
+        for (AssignNode arg : args) {
+            arg.write(frame, callee);
+        }
+        meter.enter(line, column);
+        return FunctionNode.invoke(callee);
+    }
+
+    // The call returns after its return expression, also when the expression rewrites itself with an unexpected
+    // result
+    @Override
+    public Object execute(Frame frame) {
+        Frame callee = call(frame);
+        try {
+            return callee.getFunction().getRet().execute(callee);
+        } finally {
+            meter.exit();
+        }
+    }
+
+    @Override
+    public int executeInt(Frame frame) throws UnexpectedResultException {
+        Frame callee = call(frame);
+        try {
+            return callee.getFunction().getRet().executeInt(callee);
+        } finally {
+            meter.exit();
+        }
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) throws UnexpectedResultException {
+        Frame callee = call(frame);
+        try {
+            return callee.getFunction().getRet().executeBool(callee);
+        } finally {
+            meter.exit();
+        }
+    }
+}
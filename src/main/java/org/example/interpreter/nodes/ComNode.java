@@ -0,0 +1,10 @@
+package org.example.interpreter.nodes;
+
+public abstract class ComNode extends Node {
+
+    protected ComNode(int line, int column) {
+        super(line, column);
+    }
+
+    public abstract void execute(Frame frame);
+}
@@ -0,0 +1,29 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.ir.Op;
+
+// Comparison of naturals, like the arithmetic the operands are always executed as ints
+public class CompareNode extends BinaryNode {
+
+    public CompareNode(int line, int column, Op op, ExpNode left, ExpNode right) {
+        super(line, column, op, left, right);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return executeBool(frame);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+        int l = left.executeNat(frame);
+        int r = right.executeNat(frame);
+        return switch (op) {
+            case LT -> l < r;
+            case LEQ -> l <= r;
+            case GEQ -> l >= r;
+            case GT -> l > r;
+            default -> throw new IllegalStateException("Unexpected value: " + op);
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.ir.Op;
+
+// Equality works on both types. The first execution specializes it to the type of the operands, on a miss it's
+// rewritten to the generic comparison of the boxed values.
+public abstract class EqNode extends BinaryNode {
+
+    protected EqNode(int line, int column, Op op, ExpNode left, ExpNode right) {
+        super(line, column, op, left, right);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return executeBool(frame);
+    }
+
+    @Override
+    public abstract boolean executeBool(Frame frame);
+
+    protected boolean result(boolean equals) {
+        return op == Op.EQQ == equals;
+    }
+
+    // Replace the node with the generic one and compare the values already computed
+    protected boolean generalize(Object l, Object r) {
+        if (!isReplaced()) {
+            replace(new Generic(line, column, op, left, right));
+        }
+        return result(l.equals(r));
+    }
+
+    public static final class Uninitialized extends EqNode {
+
+        public Uninitialized(int line, int column, Op op, ExpNode left, ExpNode right) {
+            super(line, column, op, left, right);
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) {
+            Object l = left.execute(frame);
+            Object r = right.execute(frame);
+            if (isReplaced()) {
+                return result(l.equals(r));
+            }
+            if (l instanceof Integer && r instanceof Integer) {
+                replace(new Int(line, column, op, left, right));
+            } else if (l instanceof Boolean && r instanceof Boolean) {
+                replace(new Bool(line, column, op, left, right));
+            } else {
+                replace(new Generic(line, column, op, left, right));
+            }
+            return result(l.equals(r));
+        }
+    }
+
+    public static final class Int extends EqNode {
+
+        public Int(int line, int column, Op op, ExpNode left, ExpNode right) {
+            super(line, column, op, left, right);
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) {
+            int l;
+            try {
+                l = left.executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.execute(frame));
+            }
+            try {
+                return result(l == right.executeInt(frame));
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+        }
+    }
+
+    public static final class Bool extends EqNode {
+
+        public Bool(int line, int column, Op op, ExpNode left, ExpNode right) {
+            super(line, column, op, left, right);
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) {
+            boolean l;
+            try {
+                l = left.executeBool(frame);
+            } catch (UnexpectedResultException e) {
+                return generalize(e.getResult(), right.execute(frame));
+            }
+            try {
+                return result(l == right.executeBool(frame));
+            } catch (UnexpectedResultException e) {
+                return generalize(l, e.getResult());
+            }
+        }
+    }
+
+    public static final class Generic extends EqNode {
+
+        public Generic(int line, int column, Op op, ExpNode left, ExpNode right) {
+            super(line, column, op, left, right);
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) {
+            Object l = left.execute(frame);
+            Object r = right.execute(frame);
+            return result(l.equals(r));
+        }
+    }
+}
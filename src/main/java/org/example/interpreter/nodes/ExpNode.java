@@ -0,0 +1,56 @@
+package org.example.interpreter.nodes;
+
+import org.example.Utils;
+
+public abstract class ExpNode extends Node {
+
+    protected ExpNode(int line, int column) {
+        super(line, column);
+    }
+
+    // Generic execution, returns an Integer or a Boolean
+    public abstract Object execute(Frame frame);
+
+    // Execution for a natural result, specialized nodes override it to avoid boxing
+    public int executeInt(Frame frame) throws UnexpectedResultException {
+        Object value = execute(frame);
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        throw new UnexpectedResultException(value);
+    }
+
+    // Execution for a boolean result, specialized nodes override it to avoid boxing
+    public boolean executeBool(Frame frame) throws UnexpectedResultException {
+        Object value = execute(frame);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw new UnexpectedResultException(value);
+    }
+
+    // Execute the node where a natural is required, panics otherwise
+    public int executeNat(Frame frame) {
+        try {
+            return executeInt(frame);
+        } catch (UnexpectedResultException e) {
+            Utils.panic(line, column, "Type mismatch, natural expression expected.");
+            throw new IllegalStateException();
+        }
+    }
+
+    // Execute the node where a boolean is required, panics otherwise
+    public boolean executeGuard(Frame frame) {
+        try {
+            return executeBool(frame);
+        } catch (UnexpectedResultException e) {
+            Utils.panic(line, column, "Type mismatch, boolean expression expected.");
+            throw new IllegalStateException();
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        throw new IllegalStateException("Node without children");
+    }
+}
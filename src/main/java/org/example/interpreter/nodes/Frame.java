@@ -0,0 +1,63 @@
+package org.example.interpreter.nodes;
+
+// Variables of a function call, naturals and booleans are stored unboxed with a tag for their type
+public class Frame {
+
+    public static final byte UNSET = 0;
+    public static final byte NAT = 1;
+    public static final byte BOOL = 2;
+
+    // The function the frame belongs to, after tail calls it's not the one called
+    private final FunctionNode function;
+    private final int[] values;
+    private final byte[] tags;
+
+    public Frame(FunctionNode function) {
+        this.function = function;
+        this.values = new int[function.getSlots()];
+        this.tags = new byte[function.getSlots()];
+    }
+
+    public FunctionNode getFunction() {
+        return function;
+    }
+
+    public byte getTag(int slot) {
+        return tags[slot];
+    }
+
+    public int getInt(int slot) {
+        return values[slot];
+    }
+
+    public boolean getBool(int slot) {
+        return values[slot] != 0;
+    }
+
+    // Boxed value of the slot, null if it was never set
+    public Object get(int slot) {
+        return switch (tags[slot]) {
+            case NAT -> values[slot];
+            case BOOL -> values[slot] != 0;
+            default -> null;
+        };
+    }
+
+    public void setInt(int slot, int value) {
+        tags[slot] = NAT;
+        values[slot] = value;
+    }
+
+    public void setBool(int slot, boolean value) {
+        tags[slot] = BOOL;
+        values[slot] = value ? 1 : 0;
+    }
+
+    public void set(int slot, Object value) {
+        if (value instanceof Integer) {
+            setInt(slot, (Integer) value);
+        } else {
+            setBool(slot, (Boolean) value);
+        }
+    }
+}
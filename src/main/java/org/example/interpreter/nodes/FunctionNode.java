@@ -0,0 +1,62 @@
+package org.example.interpreter.nodes;
+
+import org.jetbrains.annotations.Nullable;
+
+// Root of the tree of a function, or of the top level command when there is no return expression
+public class FunctionNode extends Node {
+
+    private final String name;
+    private final int slots;
+    @Nullable
+    private ComNode body;
+    @Nullable
+    private ExpNode ret;
+
+    public FunctionNode(int line, int column, String name, int slots, @Nullable ComNode body, @Nullable ExpNode ret) {
+        super(line, column);
+        this.name = name;
+        this.slots = slots;
+        this.body = body != null ? adopt(body) : null;
+        this.ret = ret != null ? adopt(ret) : null;
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (body == oldChild) {
+            body = (ComNode) newChild;
+        } else if (ret == oldChild) {
+            ret = (ExpNode) newChild;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public void executeBody(Frame frame) {
+        if (body != null) {
+            body.execute(frame);
+        }
+    }
+
+    // Execute the body of the function of the frame and of the functions it calls in tail position, returns the
+    // frame of the last one whose return expression gives the result
+    public static Frame invoke(Frame frame) {
+        while (true) {
+            try {
+                frame.getFunction().executeBody(frame);
+                return frame;
+            } catch (TailCallException e) {
+                frame = e.getFrame();
+            }
+        }
+    }
+
+    public @Nullable ExpNode getRet() {
+        return ret;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.interpreter.nodes;
+
+public class IfNode extends ComNode {
+
+    private ExpNode guard;
+    private ComNode then;
+    private ComNode otherwise;
+
+    public IfNode(int line, int column, ExpNode guard, ComNode then, ComNode otherwise) {
+        super(line, column);
+        this.guard = adopt(guard);
+        this.then = adopt(then);
+        this.otherwise = adopt(otherwise);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (guard == oldChild) {
+            guard = (ExpNode) newChild;
+        } else if (then == oldChild) {
+            then = (ComNode) newChild;
+        } else if (otherwise == oldChild) {
+            otherwise = (ComNode) newChild;
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        if (guard.executeGuard(frame)) {
+            then.execute(frame);
+        } else {
+            otherwise.execute(frame);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.interpreter.nodes;
+
+public final class LiteralNode {
+
+    private LiteralNode() {
+    }
+
+    public static final class Nat extends ExpNode {
+        private final int value;
+
+        public Nat(int line, int column, int value) {
+            super(line, column);
+            this.value = value;
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            return value;
+        }
+
+        @Override
+        public int executeInt(Frame frame) {
+            return value;
+        }
+    }
+
+    public static final class Bool extends ExpNode {
+        private final boolean value;
+
+        public Bool(int line, int column, boolean value) {
+            super(line, column);
+            this.value = value;
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            return value;
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.ir.Op;
+
+// And and or of booleans, both the operands are always evaluated
+public class LogicNode extends BinaryNode {
+
+    public LogicNode(int line, int column, Op op, ExpNode left, ExpNode right) {
+        super(line, column, op, left, right);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return executeBool(frame);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+        boolean l = left.executeGuard(frame);
+        boolean r = right.executeGuard(frame);
+        return op == Op.AND ? l && r : l || r;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.interpreter.nodes;
+
+// Node of the executable tree. A node can replace itself in its parent with a node specialized for the values it
+// has seen, or with a generic one when the specialization doesn't hold anymore.
+public abstract class Node {
+
+    // Position of the node in the source, used to report errors
+    protected final int line;
+    protected final int column;
+    private Node parent;
+    // Set once the node was replaced in its parent
+    private boolean replaced;
+
+    protected Node(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    // Set this node as the parent of the child
+    protected <T extends Node> T adopt(T child) {
+        ((Node) child).parent = this;
+        return child;
+    }
+
+    // Swap this node with the new one in the parent
+    protected <T extends Node> T replace(T node) {
+        if (!replaced) {
+            replaced = true;
+            ((Node) node).parent = parent;
+            parent.replaceChild(this, node);
+        }
+        return node;
+    }
+
+    // A node executing recursively can be replaced by an inner execution, when the outer one resumes the node is no
+    // longer in the tree. Nodes with children must check it before building the replacement, since it adopts them.
+    protected boolean isReplaced() {
+        return replaced;
+    }
+
+    // Replace the child, if it's still one of the children of this node
+    protected abstract void replaceChild(Node oldChild, Node newChild);
+}
@@ -0,0 +1,188 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.Op;
+import org.example.interpreter.ir.TailCalls;
+import org.example.interpreter.ir.Type;
+import org.example.interpreter.ir.Typing;
+import org.example.interpreter.output.OutputSink;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Build the executable tree from the resolved IR. Without types every specializing node starts uninitialized, for a
+// checked program the nodes are built already specialized to the static types and never rewrite.
+public class NodeBuilder implements IrVisitor<Node> {
+
+    private final FunctionNode[] functions;
+    private final OutputSink out;
+    // Counter of the calls and loop iterations, shared by the nodes of a run
+    private final Meter meter;
+    @Nullable
+    private final Typing typing;
+    // Types of the slots of the scope being built, null without typing
+    @Nullable
+    private Type[] slots;
+    // Assignments in tail position of the function being built
+    private Set<Com.Assign> tailCalls = Set.of();
+
+    private NodeBuilder(int functions, OutputSink out, Meter meter, @Nullable Typing typing) {
+        this.functions = new FunctionNode[functions];
+        this.out = out;
+        this.meter = meter;
+        this.typing = typing;
+    }
+
+    public static FunctionNode build(IrProgram program, OutputSink out) {
+        return build(program, null, out);
+    }
+
+    // Build the trees of all the functions and return the root of the top level command
+    public static FunctionNode build(IrProgram program, @Nullable Typing typing, OutputSink out) {
+        return build(program, typing, out, new Meter());
+    }
+
+    public static FunctionNode build(IrProgram program, @Nullable Typing typing, OutputSink out, Meter meter) {
+        NodeBuilder builder = new NodeBuilder(program.getFunctions().size(), out, meter, typing);
+        for (int i = 0; i < builder.functions.length; i++) {
+            IrFunction fun = program.getFunction(i);
+            builder.slots = typing != null ? typing.getSlots(i) : null;
+            builder.tailCalls = TailCalls.of(fun);
+            ComNode body = fun.getBody() != null ? builder.com(fun.getBody()) : null;
+            builder.functions[i] = new FunctionNode(fun.getLine(), fun.getColumn(), fun.getName(),
+                    fun.getSlotCount(), body, builder.exp(fun.getRet()));
+        }
+        Com main = program.getMain();
+        builder.slots = typing != null ? typing.getMainSlots() : null;
+        builder.tailCalls = Set.of();
+        return new FunctionNode(main.getLine(), main.getColumn(), "main", program.getSlotCount(),
+                builder.com(main), null);
+    }
+
+    private ComNode com(Com com) {
+        return (ComNode) com.accept(this);
+    }
+
+    private ExpNode exp(Exp exp) {
+        return (ExpNode) exp.accept(this);
+    }
+
+    // Write of a value in a slot, specialized if the slot type is known
+    private AssignNode assign(int line, int column, int slot, @Nullable Type type, ExpNode value) {
+        if (type == Type.NAT) {
+            return new AssignNode.Int(line, column, slot, value);
+        } else if (type == Type.BOOL) {
+            return new AssignNode.Bool(line, column, slot, value);
+        }
+        return new AssignNode.Uninitialized(line, column, slot, value);
+    }
+
+    @Override
+    public Node visitNat(Exp.Nat exp) {
+        return new LiteralNode.Nat(exp.getLine(), exp.getColumn(), exp.getValue());
+    }
+
+    @Override
+    public Node visitBool(Exp.Bool exp) {
+        return new LiteralNode.Bool(exp.getLine(), exp.getColumn(), exp.getValue());
+    }
+
+    @Override
+    public Node visitVar(Exp.Var exp) {
+        if (slots == null) {
+            return new VarNode.Uninitialized(exp.getLine(), exp.getColumn(), exp.getName(), exp.getSlot());
+        } else if (slots[exp.getSlot()] == Type.NAT) {
+            return new VarNode.Int(exp.getLine(), exp.getColumn(), exp.getName(), exp.getSlot());
+        }
+        return new VarNode.Bool(exp.getLine(), exp.getColumn(), exp.getName(), exp.getSlot());
+    }
+
+    @Override
+    public Node visitBinary(Exp.Binary exp) {
+        Op op = exp.getOp();
+        ExpNode left = exp(exp.getLeft());
+        ExpNode right = exp(exp.getRight());
+        if (op.isArithmetic()) {
+            return new ArithmeticNode(exp.getLine(), exp.getColumn(), op, left, right);
+        } else if (op.isComparison()) {
+            return new CompareNode(exp.getLine(), exp.getColumn(), op, left, right);
+        } else if (op.isLogic()) {
+            return new LogicNode(exp.getLine(), exp.getColumn(), op, left, right);
+        }
+        if (typing == null) {
+            return new EqNode.Uninitialized(exp.getLine(), exp.getColumn(), op, left, right);
+        } else if (typing.typeOf(exp.getLeft(), slots) == Type.NAT) {
+            return new EqNode.Int(exp.getLine(), exp.getColumn(), op, left, right);
+        }
+        return new EqNode.Bool(exp.getLine(), exp.getColumn(), op, left, right);
+    }
+
+    @Override
+    public Node visitNot(Exp.Not exp) {
+        return new NotNode(exp.getLine(), exp.getColumn(), exp(exp.getExp()));
+    }
+
+    @Override
+    public Node visitCall(Exp.Call exp) {
+        return new CallNode(exp.getLine(), exp.getColumn(), functions, exp.getFunction(), arguments(exp), meter);
+    }
+
+    // Writes of the arguments in the parameter slots of the callee frame
+    private List<AssignNode> arguments(Exp.Call exp) {
+        Type[] parameters = typing != null ? typing.getSlots(exp.getFunction()) : null;
+        List<AssignNode> args = new ArrayList<>();
+        for (int i = 0; i < exp.getArgs().size(); i++) {
+            Exp arg = exp.getArgs().get(i);
+            args.add(assign(arg.getLine(), arg.getColumn(), i, parameters != null ? parameters[i] : null, exp(arg)));
+        }
+        return args;
+    }
+
+    @Override
+    public Node visitSkip(Com.Skip com) {
+        return new SkipNode(com.getLine(), com.getColumn());
+    }
+
+    @Override
+    public Node visitAssign(Com.Assign com) {
+        if (tailCalls.contains(com)) {
+            Exp.Call call = (Exp.Call) com.getExp();
+            return new TailCallNode(call.getLine(), call.getColumn(), functions, call.getFunction(), arguments(call),
+                    meter);
+        }
+        return assign(com.getLine(), com.getColumn(), com.getSlot(), slots != null ? slots[com.getSlot()] : null,
+                exp(com.getExp()));
+    }
+
+    @Override
+    public Node visitSeq(Com.Seq com) {
+        List<ComNode> commands = new ArrayList<>();
+        for (Com command : com.getCommands()) {
+            commands.add(com(command));
+        }
+        return new SeqNode(com.getLine(), com.getColumn(), commands);
+    }
+
+    @Override
+    public Node visitIf(Com.If com) {
+        return new IfNode(com.getLine(), com.getColumn(), exp(com.getGuard()), com(com.getThen()),
+                com(com.getOtherwise()));
+    }
+
+    @Override
+    public Node visitWhile(Com.While com) {
+        return new WhileNode(com.getLine(), com.getColumn(), exp(com.getGuard()), com(com.getBody()), meter);
+    }
+
+    @Override
+    public Node visitOut(Com.Out com) {
+        return new OutNode(com.getLine(), com.getColumn(), out, exp(com.getExp()));
+    }
+}
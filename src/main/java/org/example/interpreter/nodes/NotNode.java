@@ -0,0 +1,28 @@
+package org.example.interpreter.nodes;
+
+public class NotNode extends ExpNode {
+
+    private ExpNode exp;
+
+    public NotNode(int line, int column, ExpNode exp) {
+        super(line, column);
+        this.exp = adopt(exp);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (exp == oldChild) {
+            exp = (ExpNode) newChild;
+        }
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+        return executeBool(frame);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+        return !exp.executeGuard(frame);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.output.OutputSink;
+
+public class OutNode extends ComNode {
+
+    private final OutputSink out;
+    private ExpNode exp;
+
+    public OutNode(int line, int column, OutputSink out, ExpNode exp) {
+        super(line, column);
+        this.out = out;
+        this.exp = adopt(exp);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (exp == oldChild) {
+            exp = (ExpNode) newChild;
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        Object value = exp.execute(frame);
+        if (value instanceof Boolean) {
+            out.writeBool((Boolean) value);
+        } else {
+            out.writeInt((Integer) value);
+        }
+    }
+}
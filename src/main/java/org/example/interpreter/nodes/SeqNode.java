@@ -0,0 +1,32 @@
+package org.example.interpreter.nodes;
+
+import java.util.List;
+
+public class SeqNode extends ComNode {
+
+    private final ComNode[] commands;
+
+    public SeqNode(int line, int column, List<ComNode> commands) {
+        super(line, column);
+        this.commands = new ComNode[commands.size()];
+        for (int i = 0; i < commands.size(); i++) {
+            this.commands[i] = adopt(commands.get(i));
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        for (int i = 0; i < commands.length; i++) {
+            if (commands[i] == oldChild) {
+                commands[i] = (ComNode) newChild;
+            }
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        for (ComNode command : commands) {
+            command.execute(frame);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.interpreter.nodes;
+
+public class SkipNode extends ComNode {
+
+    public SkipNode(int line, int column) {
+        super(line, column);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        throw new IllegalStateException("Node without children");
+    }
+
+    @Override
+    public void execute(Frame frame) {
+    }
+}
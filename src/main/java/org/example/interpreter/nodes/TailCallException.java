@@ -0,0 +1,17 @@
+package org.example.interpreter.nodes;
+
+// Thrown by a call in tail position with the frame of the callee, the call running the function catches it and
+// continues with the callee so the Java stack doesn't grow
+public class TailCallException extends RuntimeException {
+
+    private final Frame frame;
+
+    public TailCallException(Frame frame) {
+        super(null, null, false, false);
+        this.frame = frame;
+    }
+
+    public Frame getFrame() {
+        return frame;
+    }
+}
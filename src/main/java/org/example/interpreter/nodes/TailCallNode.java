@@ -0,0 +1,46 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.Meter;
+
+import java.util.List;
+
+// Call in tail position of a function body. The arguments are written in the frame of the callee like in a call,
+// then the body of the running function is unwound to the call node that will execute the callee.
+public class TailCallNode extends ComNode {
+
+    private final FunctionNode[] functions;
+    private final int function;
+    private final AssignNode[] args;
+    private final Meter meter;
+
+    public TailCallNode(int line, int column, FunctionNode[] functions, int function, List<AssignNode> args,
+                        Meter meter) {
+        super(line, column);
+        this.meter = meter;
+        this.functions = functions;
+        this.function = function;
+        this.args = new AssignNode[args.size()];
+        for (int i = 0; i < args.size(); i++) {
+            this.args[i] = adopt(args.get(i));
+        }
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == oldChild) {
+                args[i] = (AssignNode) newChild;
+            }
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        Frame callee = new Frame(functions[function]);
+        for (AssignNode arg : args) {
+            arg.write(frame, callee);
+        }
+        meter.tailCall(line, column);
+        throw new TailCallException(callee);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.interpreter.nodes;
+
+// Thrown by the typed execute methods when the value has a different type, it carries the value so the caller
+// can continue without executing the node again
+public class UnexpectedResultException extends Exception {
+
+    private final Object result;
+
+    public UnexpectedResultException(Object result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.interpreter.nodes;
+
+import org.example.Utils;
+
+// Read of a variable. It starts uninitialized and on the first read it specializes to the type found in the frame,
+// if later the variable holds the other type it's rewritten to the generic read.
+public abstract class VarNode extends ExpNode {
+
+    protected final String name;
+    protected final int slot;
+
+    protected VarNode(int line, int column, String name, int slot) {
+        super(line, column);
+        this.name = name;
+        this.slot = slot;
+    }
+
+    protected Object read(Frame frame) {
+        Object value = frame.get(slot);
+        if (value == null) {
+            Utils.panic(line, column, "Variable " + name + " used but never instantiated");
+        }
+        return value;
+    }
+
+    // Replace the node with the generic read and read the value
+    protected Object generalize(Frame frame) {
+        return replace(new Generic(line, column, name, slot)).execute(frame);
+    }
+
+    public static final class Uninitialized extends VarNode {
+
+        public Uninitialized(int line, int column, String name, int slot) {
+            super(line, column, name, slot);
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            Object value = read(frame);
+            if (value instanceof Integer) {
+                replace(new Int(line, column, name, slot));
+            } else {
+                replace(new Bool(line, column, name, slot));
+            }
+            return value;
+        }
+    }
+
+    public static final class Int extends VarNode {
+
+        public Int(int line, int column, String name, int slot) {
+            super(line, column, name, slot);
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            if (frame.getTag(slot) == Frame.NAT) {
+                return frame.getInt(slot);
+            }
+            return generalize(frame);
+        }
+
+        @Override
+        public int executeInt(Frame frame) throws UnexpectedResultException {
+            if (frame.getTag(slot) == Frame.NAT) {
+                return frame.getInt(slot);
+            }
+            throw new UnexpectedResultException(generalize(frame));
+        }
+    }
+
+    public static final class Bool extends VarNode {
+
+        public Bool(int line, int column, String name, int slot) {
+            super(line, column, name, slot);
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            if (frame.getTag(slot) == Frame.BOOL) {
+                return frame.getBool(slot);
+            }
+            return generalize(frame);
+        }
+
+        @Override
+        public boolean executeBool(Frame frame) throws UnexpectedResultException {
+            if (frame.getTag(slot) == Frame.BOOL) {
+                return frame.getBool(slot);
+            }
+            throw new UnexpectedResultException(generalize(frame));
+        }
+    }
+
+    public static final class Generic extends VarNode {
+
+        public Generic(int line, int column, String name, int slot) {
+            super(line, column, name, slot);
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            return read(frame);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.interpreter.nodes;
+
+import org.example.interpreter.Meter;
+
+// Loop, the guard is executed as a boolean so a specialized guard never boxes
+public class WhileNode extends ComNode {
+
+    private ExpNode guard;
+    private ComNode body;
+    private final Meter meter;
+
+    public WhileNode(int line, int column, ExpNode guard, ComNode body, Meter meter) {
+        super(line, column);
+        this.meter = meter;
+        this.guard = adopt(guard);
+        this.body = adopt(body);
+    }
+
+    @Override
+    protected void replaceChild(Node oldChild, Node newChild) {
+        if (guard == oldChild) {
+            guard = (ExpNode) newChild;
+        } else if (body == oldChild) {
+            body = (ComNode) newChild;
+        }
+    }
+
+    @Override
+    public void execute(Frame frame) {
+        while (guard.executeGuard(frame)) {
+            meter.iteration(line, column);
+            body.execute(frame);
+        }
+    }
+}
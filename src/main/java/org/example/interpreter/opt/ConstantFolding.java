@@ -0,0 +1,61 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.Node;
+import org.example.interpreter.ir.Op;
+
+// Replace the operations on literals with their result, computed with the same semantics of the engines. A
+// division or modulo by zero is kept, so it still fails when and if it's executed.
+public class ConstantFolding extends Rewriter {
+
+    @Override
+    public Node visitBinary(Exp.Binary exp) {
+        Exp left = exp(exp.getLeft());
+        Exp right = exp(exp.getRight());
+        Op op = exp.getOp();
+        int line = exp.getLine();
+        int column = exp.getColumn();
+
+        if (left instanceof Exp.Nat && right instanceof Exp.Nat) {
+            int l = ((Exp.Nat) left).getValue();
+            int r = ((Exp.Nat) right).getValue();
+            if (op.isArithmetic()) {
+                if ((op == Op.DIV || op == Op.MOD) && r == 0) {
+                    return binary(exp, left, right);
+                }
+                return new Exp.Nat(line, column, op.apply(l, r));
+            }
+            return switch (op) {
+                case LT -> new Exp.Bool(line, column, l < r);
+                case LEQ -> new Exp.Bool(line, column, l <= r);
+                case GEQ -> new Exp.Bool(line, column, l >= r);
+                case GT -> new Exp.Bool(line, column, l > r);
+                case EQQ -> new Exp.Bool(line, column, l == r);
+                case NEQ -> new Exp.Bool(line, column, l != r);
+                default -> binary(exp, left, right);
+            };
+        }
+
+        if (left instanceof Exp.Bool && right instanceof Exp.Bool) {
+            boolean l = ((Exp.Bool) left).getValue();
+            boolean r = ((Exp.Bool) right).getValue();
+            return switch (op) {
+                case EQQ -> new Exp.Bool(line, column, l == r);
+                case NEQ -> new Exp.Bool(line, column, l != r);
+                case AND -> new Exp.Bool(line, column, l && r);
+                case OR -> new Exp.Bool(line, column, l || r);
+                default -> binary(exp, left, right);
+            };
+        }
+        return binary(exp, left, right);
+    }
+
+    @Override
+    public Node visitNot(Exp.Not exp) {
+        Exp inner = exp(exp.getExp());
+        if (inner instanceof Exp.Bool) {
+            return new Exp.Bool(exp.getLine(), exp.getColumn(), !((Exp.Bool) inner).getValue());
+        }
+        return inner == exp.getExp() ? exp : new Exp.Not(exp.getLine(), exp.getColumn(), inner);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Remove the code that can't be executed: the branch of an if with a literal guard that is never taken, a while
+// whose guard is false and the skips left in the sequences.
+public class DeadBranches extends Rewriter {
+
+    @Override
+    public Node visitIf(Com.If com) {
+        Exp guard = exp(com.getGuard());
+        if (guard instanceof Exp.Bool) {
+            return ((Exp.Bool) guard).getValue() ? com(com.getThen()) : com(com.getOtherwise());
+        }
+        Com then = com(com.getThen());
+        Com otherwise = com(com.getOtherwise());
+        if (guard == com.getGuard() && then == com.getThen() && otherwise == com.getOtherwise()) {
+            return com;
+        }
+        return new Com.If(com.getLine(), com.getColumn(), guard, then, otherwise);
+    }
+
+    @Override
+    public Node visitWhile(Com.While com) {
+        Exp guard = exp(com.getGuard());
+        if (guard instanceof Exp.Bool && !((Exp.Bool) guard).getValue()) {
+            return new Com.Skip(com.getLine(), com.getColumn());
+        }
+        Com body = com(com.getBody());
+        if (guard == com.getGuard() && body == com.getBody()) {
+            return com;
+        }
+        return new Com.While(com.getLine(), com.getColumn(), guard, body);
+    }
+
+    @Override
+    public Node visitSeq(Com.Seq com) {
+        List<Com> commands = new ArrayList<>();
+        boolean changed = false;
+        for (Com command : com.getCommands()) {
+            Com rewritten = com(command);
+            changed |= rewritten != command;
+            // A removed branch can leave a nested sequence, it's flattened like the ones from the parser
+            if (rewritten instanceof Com.Seq) {
+                commands.addAll(((Com.Seq) rewritten).getCommands());
+                changed = true;
+            } else if (rewritten instanceof Com.Skip) {
+                changed = true;
+            } else {
+                commands.add(rewritten);
+            }
+        }
+        if (!changed) {
+            return com;
+        } else if (commands.isEmpty()) {
+            return new Com.Skip(com.getLine(), com.getColumn());
+        } else if (commands.size() == 1) {
+            return commands.get(0);
+        }
+        return new Com.Seq(com.getLine(), com.getColumn(), commands);
+    }
+}
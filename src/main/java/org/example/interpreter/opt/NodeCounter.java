@@ -0,0 +1,92 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+
+// Count the nodes of the IR of a program, used to measure what the passes remove
+public class NodeCounter implements IrVisitor<Integer> {
+
+    private static final NodeCounter INSTANCE = new NodeCounter();
+
+    public static int count(IrProgram program) {
+        int count = program.getMain().accept(INSTANCE);
+        for (IrFunction fun : program.getFunctions()) {
+            if (fun.getBody() != null) {
+                count += fun.getBody().accept(INSTANCE);
+            }
+            count += fun.getRet().accept(INSTANCE);
+        }
+        return count;
+    }
+
+    @Override
+    public Integer visitNat(Exp.Nat exp) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitBool(Exp.Bool exp) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitVar(Exp.Var exp) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitBinary(Exp.Binary exp) {
+        return 1 + exp.getLeft().accept(this) + exp.getRight().accept(this);
+    }
+
+    @Override
+    public Integer visitNot(Exp.Not exp) {
+        return 1 + exp.getExp().accept(this);
+    }
+
+    @Override
+    public Integer visitCall(Exp.Call exp) {
+        int count = 1;
+        for (Exp arg : exp.getArgs()) {
+            count += arg.accept(this);
+        }
+        return count;
+    }
+
+    @Override
+    public Integer visitSkip(Com.Skip com) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitAssign(Com.Assign com) {
+        return 1 + com.getExp().accept(this);
+    }
+
+    @Override
+    public Integer visitSeq(Com.Seq com) {
+        int count = 1;
+        for (Com command : com.getCommands()) {
+            count += command.accept(this);
+        }
+        return count;
+    }
+
+    @Override
+    public Integer visitIf(Com.If com) {
+        return 1 + com.getGuard().accept(this) + com.getThen().accept(this) + com.getOtherwise().accept(this);
+    }
+
+    @Override
+    public Integer visitWhile(Com.While com) {
+        return 1 + com.getGuard().accept(this) + com.getBody().accept(this);
+    }
+
+    @Override
+    public Integer visitOut(Com.Out com) {
+        return 1 + com.getExp().accept(this);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.IrProgram;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Pipeline of the optimization passes over a checked program. Every pass can be enabled on its own and the number
+// of IR nodes it removed is recorded for the last optimized program.
+public class Optimizer {
+
+    private final Set<Pass> passes;
+    private final Map<Pass, Integer> removed = new EnumMap<>(Pass.class);
+
+    public Optimizer(Set<Pass> passes) {
+        this.passes = passes.isEmpty() ? EnumSet.noneOf(Pass.class) : EnumSet.copyOf(passes);
+    }
+
+    // Optimizer with all the passes enabled
+    public static Optimizer all() {
+        return new Optimizer(EnumSet.allOf(Pass.class));
+    }
+
+    public IrProgram optimize(IrProgram program) {
+        removed.clear();
+        int count = NodeCounter.count(program);
+        for (Pass pass : passes) {
+            program = pass.create().rewrite(program);
+            int after = NodeCounter.count(program);
+            removed.put(pass, count - after);
+            count = after;
+        }
+        return program;
+    }
+
+    public Set<Pass> getPasses() {
+        return passes;
+    }
+
+    // Number of nodes removed by each enabled pass in the last optimization
+    public Map<Pass, Integer> getRemoved() {
+        return Collections.unmodifiableMap(new EnumMap<>(removed));
+    }
+
+    public int getRemoved(Pass pass) {
+        return removed.getOrDefault(pass, 0);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.interpreter.opt;
+
+import java.util.function.Supplier;
+
+// Optimization passes, the optimizer runs the enabled ones in this order: folding first makes the guards and the
+// powers of two literals visible to the other passes
+public enum Pass {
+    CONSTANT_FOLDING(ConstantFolding::new),
+    DEAD_BRANCHES(DeadBranches::new),
+    STRENGTH_REDUCTION(StrengthReduction::new);
+
+    private final Supplier<Rewriter> factory;
+
+    Pass(Supplier<Rewriter> factory) {
+        this.factory = factory;
+    }
+
+    public Rewriter create() {
+        return factory.get();
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Base of the optimization passes: rebuild the IR bottom up, a pass overrides the nodes it rewrites and works on
+// children that are already rewritten. The IR is immutable, so the nodes that don't change are shared.
+public abstract class Rewriter implements IrVisitor<Node> {
+
+    public IrProgram rewrite(IrProgram program) {
+        List<IrFunction> functions = new ArrayList<>();
+        for (IrFunction fun : program.getFunctions()) {
+            Com body = fun.getBody() != null ? com(fun.getBody()) : null;
+            functions.add(new IrFunction(fun.getName(), fun.getParameters(), fun.getSlots(), body, exp(fun.getRet()),
+                    fun.getLine(), fun.getColumn()));
+        }
+        return new IrProgram(functions, com(program.getMain()), program.getSlots());
+    }
+
+    protected Com com(Com com) {
+        return (Com) com.accept(this);
+    }
+
+    protected Exp exp(Exp exp) {
+        return (Exp) exp.accept(this);
+    }
+
+    // Rebuild a binary expression with its rewritten operands
+    protected Exp binary(Exp.Binary exp, Exp left, Exp right) {
+        if (left == exp.getLeft() && right == exp.getRight()) {
+            return exp;
+        }
+        return new Exp.Binary(exp.getLine(), exp.getColumn(), exp.getOp(), left, right);
+    }
+
+    @Override
+    public Node visitNat(Exp.Nat exp) {
+        return exp;
+    }
+
+    @Override
+    public Node visitBool(Exp.Bool exp) {
+        return exp;
+    }
+
+    @Override
+    public Node visitVar(Exp.Var exp) {
+        return exp;
+    }
+
+    @Override
+    public Node visitBinary(Exp.Binary exp) {
+        return binary(exp, exp(exp.getLeft()), exp(exp.getRight()));
+    }
+
+    @Override
+    public Node visitNot(Exp.Not exp) {
+        Exp inner = exp(exp.getExp());
+        return inner == exp.getExp() ? exp : new Exp.Not(exp.getLine(), exp.getColumn(), inner);
+    }
+
+    @Override
+    public Node visitCall(Exp.Call exp) {
+        List<Exp> args = new ArrayList<>();
+        boolean changed = false;
+        for (Exp arg : exp.getArgs()) {
+            Exp rewritten = exp(arg);
+            changed |= rewritten != arg;
+            args.add(rewritten);
+        }
+        return changed ? new Exp.Call(exp.getLine(), exp.getColumn(), exp.getName(), exp.getFunction(), args) : exp;
+    }
+
+    @Override
+    public Node visitSkip(Com.Skip com) {
+        return com;
+    }
+
+    @Override
+    public Node visitAssign(Com.Assign com) {
+        Exp exp = exp(com.getExp());
+        return exp == com.getExp() ? com : new Com.Assign(com.getLine(), com.getColumn(), com.getName(),
+                com.getSlot(), exp);
+    }
+
+    @Override
+    public Node visitSeq(Com.Seq com) {
+        List<Com> commands = new ArrayList<>();
+        boolean changed = false;
+        for (Com command : com.getCommands()) {
+            Com rewritten = com(command);
+            changed |= rewritten != command;
+            commands.add(rewritten);
+        }
+        return changed ? new Com.Seq(com.getLine(), com.getColumn(), commands) : com;
+    }
+
+    @Override
+    public Node visitIf(Com.If com) {
+        Exp guard = exp(com.getGuard());
+        Com then = com(com.getThen());
+        Com otherwise = com(com.getOtherwise());
+        if (guard == com.getGuard() && then == com.getThen() && otherwise == com.getOtherwise()) {
+            return com;
+        }
+        return new Com.If(com.getLine(), com.getColumn(), guard, then, otherwise);
+    }
+
+    @Override
+    public Node visitWhile(Com.While com) {
+        Exp guard = exp(com.getGuard());
+        Com body = com(com.getBody());
+        if (guard == com.getGuard() && body == com.getBody()) {
+            return com;
+        }
+        return new Com.While(com.getLine(), com.getColumn(), guard, body);
+    }
+
+    @Override
+    public Node visitOut(Com.Out com) {
+        Exp exp = exp(com.getExp());
+        return exp == com.getExp() ? com : new Com.Out(com.getLine(), com.getColumn(), exp);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.interpreter.opt;
+
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.Node;
+import org.example.interpreter.ir.Op;
+
+// Replace the multiplications, divisions, modulos and powers by a power of two literal with the cheaper operators
+// on the exponent. They give the same result also on the negative values of an overflow. A power of two with
+// exponent zero is the identity of the operation and only the other operand is kept.
+public class StrengthReduction extends Rewriter {
+
+    @Override
+    public Node visitBinary(Exp.Binary exp) {
+        Exp left = exp(exp.getLeft());
+        Exp right = exp(exp.getRight());
+        Op op = exp.getOp();
+
+        int k = exponent(right);
+        if (k >= 0) {
+            switch (op) {
+                case MUL, DIV, POW -> {
+                    if (k == 0) {
+                        return left;
+                    }
+                    Op reduced = op == Op.MUL ? Op.SHL : op == Op.DIV ? Op.SHR : Op.SQUARE;
+                    return reduce(exp, reduced, left, right, k);
+                }
+                case MOD -> {
+                    return reduce(exp, Op.MASK, left, right, k);
+                }
+                default -> {
+                }
+            }
+        }
+        // The multiplication commutes, literals have no effect so the operands can be swapped
+        if (op == Op.MUL && left instanceof Exp.Nat && (k = exponent(left)) >= 0) {
+            return k == 0 ? right : reduce(exp, Op.SHL, right, left, k);
+        }
+        return binary(exp, left, right);
+    }
+
+    private Exp reduce(Exp.Binary exp, Op op, Exp operand, Exp literal, int k) {
+        return new Exp.Binary(exp.getLine(), exp.getColumn(), op, operand,
+                new Exp.Nat(literal.getLine(), literal.getColumn(), k));
+    }
+
+    // Exponent of a power of two literal, -1 if the expression is not one
+    private static int exponent(Exp exp) {
+        if (!(exp instanceof Exp.Nat)) {
+            return -1;
+        }
+        int value = ((Exp.Nat) exp).getValue();
+        return value > 0 && Integer.bitCount(value) == 1 ? Integer.numberOfTrailingZeros(value) : -1;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.interpreter.output;
+
+import java.nio.charset.StandardCharsets;
+
+// Encoding of the values as text directly in a byte array, without creating strings
+final class Ascii {
+
+    // Longest encoding of a value with its new line
+    static final int MAX_LENGTH = 12;
+
+    private static final byte[] MIN_VALUE = Integer.toString(Integer.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private Ascii() {
+    }
+
+    // Write the digits of the value and a new line at the position, returns the position after them
+    static int putInt(byte[] buffer, int position, int value) {
+        if (value == Integer.MIN_VALUE) {
+            System.arraycopy(MIN_VALUE, 0, buffer, position, MIN_VALUE.length);
+            buffer[position + MIN_VALUE.length] = '\n';
+            return position + MIN_VALUE.length + 1;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer[end] = '\n';
+        return end + 1;
+    }
+
+    static int putBool(byte[] buffer, int position, boolean value) {
+        byte[] text = value ? TRUE : FALSE;
+        System.arraycopy(text, 0, buffer, position, text.length);
+        buffer[position + text.length] = '\n';
+        return position + text.length + 1;
+    }
+}
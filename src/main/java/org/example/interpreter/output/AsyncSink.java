@@ -0,0 +1,132 @@
+package org.example.interpreter.output;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Output handed to a writer thread through a ring buffer, the thread running the program only stores the values.
+// Only one thread can write to the sink. When the ring is full, the writing thread waits for the writer thread.
+public class AsyncSink implements OutputSink {
+
+    private static final long INT = 0L;
+    private static final long BOOL = 1L << 32;
+    private static final long MASK = 0xFFFFFFFFL;
+    private static final long PARK_NANOS = 50_000;
+
+    private final OutputSink target;
+    private final long[] ring;
+    private final int mask;
+    // Number of values written to the ring and read from it
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // Number of flushes requested and done by the writer thread
+    private final AtomicLong flushRequests = new AtomicLong();
+    private volatile long flushes;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    private final Thread writer;
+
+    // Size of the ring, rounded up to a power of 2
+    public AsyncSink(OutputSink target, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.target = target;
+        int size = Integer.highestOneBit(capacity);
+        this.ring = new long[size < capacity ? size << 1 : size];
+        this.mask = ring.length - 1;
+        this.writer = new Thread(this::drain, "havefun-output");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public AsyncSink(OutputSink target) {
+        this(target, 1 << 16);
+    }
+
+    private void put(long entry) {
+        checkFailure();
+        long position = head.get();
+        while (position - tail.get() >= ring.length) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+            checkFailure();
+        }
+        ring[(int) position & mask] = entry;
+        head.lazySet(position + 1);
+    }
+
+    @Override
+    public void writeInt(int value) {
+        put(INT | value & MASK);
+    }
+
+    @Override
+    public void writeBool(boolean value) {
+        put(BOOL | (value ? 1 : 0));
+    }
+
+    // Wait until the writer thread wrote the values written so far and flushed its target
+    @Override
+    public void flush() {
+        long request = flushRequests.incrementAndGet();
+        LockSupport.unpark(writer);
+        while (flushes < request && writer.isAlive()) {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        RuntimeException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                // Read the request before the values, so all the values written before it are drained
+                long request = flushRequests.get();
+                long position = tail.get();
+                long end = head.get();
+                for (; position < end; position++) {
+                    long entry = ring[(int) position & mask];
+                    if ((entry & ~MASK) == BOOL) {
+                        target.writeBool((entry & 1) != 0);
+                    } else {
+                        target.writeInt((int) entry);
+                    }
+                    tail.lazySet(position + 1);
+                }
+                if (request > flushes) {
+                    target.flush();
+                    flushes = request;
+                } else if (closed) {
+                    return;
+                } else if (position == head.get()) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+}
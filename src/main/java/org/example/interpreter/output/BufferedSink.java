@@ -0,0 +1,65 @@
+package org.example.interpreter.output;
+
+// Sink encoding the values in a byte buffer, written to the destination following the flush policy
+public abstract class BufferedSink implements OutputSink {
+
+    private final byte[] buffer = new byte[FlushPolicy.BUFFER_SIZE];
+    private final FlushPolicy policy;
+    private int size;
+    private long lastFlush;
+
+    protected BufferedSink(FlushPolicy policy) {
+        this.policy = policy;
+        this.lastFlush = policy.getNanos() > 0 ? System.nanoTime() : 0;
+    }
+
+    // Write the bytes to the destination
+    protected abstract void drain(byte[] bytes, int length);
+
+    // Release the destination
+    protected abstract void release();
+
+    @Override
+    public void writeInt(int value) {
+        if (buffer.length - size < Ascii.MAX_LENGTH) {
+            flush();
+        }
+        size = Ascii.putInt(buffer, size, value);
+        written();
+    }
+
+    @Override
+    public void writeBool(boolean value) {
+        if (buffer.length - size < Ascii.MAX_LENGTH) {
+            flush();
+        }
+        size = Ascii.putBool(buffer, size, value);
+        written();
+    }
+
+    private void written() {
+        if (size >= policy.getBytes() || policy.getNanos() > 0 && System.nanoTime() - lastFlush >= policy.getNanos()) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (size > 0) {
+            drain(buffer, size);
+            size = 0;
+        }
+        if (policy.getNanos() > 0) {
+            lastFlush = System.nanoTime();
+        }
+    }
+
+    // Flush what is still buffered and release the destination
+    @Override
+    public void close() {
+        if (size > 0) {
+            flush();
+        }
+        release();
+    }
+}
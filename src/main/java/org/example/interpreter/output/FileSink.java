@@ -0,0 +1,64 @@
+package org.example.interpreter.output;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Output to a file through a channel. The file is created or truncated by the first flush, so a program rejected
+// before running doesn't touch it.
+public class FileSink extends BufferedSink {
+
+    private final Path path;
+    @Nullable
+    private FileChannel channel;
+
+    public FileSink(Path path, FlushPolicy policy) {
+        super(policy);
+        this.path = path;
+    }
+
+    @Override
+    public void flush() {
+        if (channel == null) {
+            try {
+                channel = FileChannel.open(path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        super.flush();
+    }
+
+    @Override
+    protected void drain(byte[] bytes, int length) {
+        assert channel != null;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void release() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.interpreter.output;
+
+import java.time.Duration;
+
+// When a buffered sink writes its buffer to the destination: when it holds enough bytes, when enough time passed
+// since the last flush, or only when it's full and at the end of the run
+public final class FlushPolicy {
+
+    // Size of the buffers of the sinks
+    public static final int BUFFER_SIZE = 8192;
+
+    public static final FlushPolicy DEFAULT = new FlushPolicy(BUFFER_SIZE, Duration.ofMillis(100).toNanos());
+
+    private final int bytes;
+    // Max time between flushes, 0 to never flush by time
+    private final long nanos;
+
+    private FlushPolicy(int bytes, long nanos) {
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    public static FlushPolicy ofSize(int bytes) {
+        if (bytes <= 0 || bytes > BUFFER_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + BUFFER_SIZE + ": " + bytes);
+        }
+        return new FlushPolicy(bytes, 0);
+    }
+
+    // Flush when the given time passed since the last flush, checked when a value is written
+    public static FlushPolicy ofInterval(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+        return new FlushPolicy(BUFFER_SIZE, interval.toNanos());
+    }
+
+    public static FlushPolicy atEnd() {
+        return new FlushPolicy(BUFFER_SIZE, 0);
+    }
+
+    // Flush after every value, like a line buffered stream
+    public static FlushPolicy everyLine() {
+        return new FlushPolicy(1, 0);
+    }
+
+    public int getBytes() {
+        return bytes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.interpreter.output;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Output captured in memory, to read it back after the run
+public class MemorySink implements OutputSink {
+
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    private void ensureCapacity() {
+        if (bytes.length - size < Ascii.MAX_LENGTH) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+    }
+
+    @Override
+    public void writeInt(int value) {
+        ensureCapacity();
+        size = Ascii.putInt(bytes, size, value);
+    }
+
+    @Override
+    public void writeBool(boolean value) {
+        ensureCapacity();
+        size = Ascii.putBool(bytes, size, value);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The output written so far, every value followed by a new line
+    public String getOutput() {
+        return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    public List<String> getLines() {
+        return size == 0 ? List.of() : List.of(getOutput().split("\n"));
+    }
+
+    // Forget the output written so far
+    public void reset() {
+        size = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.interpreter.output;
+
+import java.nio.file.Paths;
+
+// Destination of the values written by out, one per line. The sinks can buffer: the engines flush at the end of
+// the run, the owner of the sink closes it.
+public interface OutputSink {
+
+    void writeInt(int value);
+
+    void writeBool(boolean value);
+
+    // Write everything buffered to the destination
+    void flush();
+
+    // Flush and release the destination
+    void close();
+
+    // Output of Main when no sink is given: to stdout and to the out.txt file used by the tests. The caller closes
+    // the sink, which closes the file
+    static OutputSink standard() {
+        return new TeeSink(StreamSink.stdout(FlushPolicy.DEFAULT),
+                new FileSink(Paths.get("out.txt"), FlushPolicy.DEFAULT));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.interpreter.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Output to a stream, the stream is flushed with the sink but not closed
+public class StreamSink extends BufferedSink {
+
+    private final OutputStream stream;
+
+    public StreamSink(OutputStream stream, FlushPolicy policy) {
+        super(policy);
+        this.stream = stream;
+    }
+
+    // Output to the current standard output
+    public static StreamSink stdout(FlushPolicy policy) {
+        return new StreamSink(System.out, policy);
+    }
+
+    @Override
+    protected void drain(byte[] bytes, int length) {
+        try {
+            stream.write(bytes, 0, length);
+            stream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void release() {
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.interpreter.output;
+
+import java.util.List;
+
+// Output written to all the given sinks
+public class TeeSink implements OutputSink {
+
+    private final OutputSink[] sinks;
+
+    public TeeSink(OutputSink... sinks) {
+        this.sinks = sinks.clone();
+    }
+
+    public List<OutputSink> getSinks() {
+        return List.of(sinks);
+    }
+
+    @Override
+    public void writeInt(int value) {
+        for (OutputSink sink : sinks) {
+            sink.writeInt(value);
+        }
+    }
+
+    @Override
+    public void writeBool(boolean value) {
+        for (OutputSink sink : sinks) {
+            sink.writeBool(value);
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (OutputSink sink : sinks) {
+            sink.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (OutputSink sink : sinks) {
+            sink.close();
+        }
+    }
+}
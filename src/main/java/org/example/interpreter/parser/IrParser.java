@@ -0,0 +1,416 @@
+package org.example.interpreter.parser;
+
+import org.antlr.v4.runtime.Token;
+import org.example.Utils;
+import org.example.interpreter.antlr.ImpLexer;
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.Op;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Recursive descent parser of Imp.g4 building the resolved IR directly, without a parse tree. The expressions are
+// parsed by precedence climbing with the precedences ANTLR gives to the alternatives of the left recursive exp rule,
+// so the IR and the positions of its nodes are the same the Resolver produces from the ANTLR tree. The errors of the
+// Resolver are reported in the same order: the declarations of the functions first, then the calls in source order.
+// A syntax error panics at the first wrong token, where ANTLR would print it and try to recover.
+public final class IrParser {
+
+    // Precedence of the prefix operator ! and of the binary operators, like in the generated ImpParser
+    private static final int NOT_PRECEDENCE = 8;
+
+    private final Lexer lexer;
+    // Index and arity of the declared functions, collected before parsing the bodies
+    private final Map<String, Integer> functions = new HashMap<>();
+    private final List<Integer> arities = new ArrayList<>();
+    // Slots of the scope being parsed, indexed by the name of the variable
+    private LinkedHashMap<String, Integer> scope = new LinkedHashMap<>();
+
+    // The errors of the declarations and of the calls are reported once the program is parsed, the first one wins
+    private String declarationError;
+    private int declarationLine;
+    private int declarationColumn;
+    private String callError;
+    private int callLine;
+    private int callColumn;
+    // Offset in the source of the call with the error
+    private int callStart = Integer.MAX_VALUE;
+
+    private IrParser(ByteBuffer input) {
+        Names names = new Names();
+        declare(new Lexer(input.duplicate(), names));
+        this.lexer = new Lexer(input.duplicate(), names);
+    }
+
+    // Parse the ASCII source from the position to the limit of the buffer
+    public static IrProgram parse(ByteBuffer input) {
+        return new IrParser(input).program();
+    }
+
+    public static IrProgram parse(String source) {
+        return parse(ByteBuffer.wrap(source.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Parse the file mapped in memory, the source is never copied to the heap and the tokens are not retained
+    public static IrProgram parse(Path path) throws IOException {
+        MappedByteBuffer input;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Source larger than 2 GiB: " + path);
+            }
+            input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(input);
+    }
+
+    // Read the headers of the functions, skipping their bodies, so the calls can be resolved in a single pass. A
+    // malformed header stops the scan, the parser reports it as a syntax error.
+    private void declare(Lexer scan) {
+        while (scan.getType() == ImpLexer.FUN) {
+            int line = scan.getLine();
+            int column = scan.getColumn();
+            scan.next();
+            if (scan.getType() != ImpLexer.ID) {
+                return;
+            }
+            String name = scan.name();
+            scan.next();
+            if (scan.getType() != ImpLexer.LPAR) {
+                return;
+            }
+            scan.next();
+            List<String> parameters = new ArrayList<>();
+            if (scan.getType() == ImpLexer.ID) {
+                parameters.add(scan.name());
+                scan.next();
+                while (scan.getType() == ImpLexer.COLON) {
+                    scan.next();
+                    if (scan.getType() != ImpLexer.ID) {
+                        return;
+                    }
+                    parameters.add(scan.name());
+                    scan.next();
+                }
+            }
+            if (scan.getType() != ImpLexer.RPAR) {
+                return;
+            }
+            scan.next();
+
+            if (functions.containsKey(name)) {
+                declarationError(line, column, "Fun " + name + " already defined.");
+            } else {
+                functions.put(name, arities.size());
+            }
+            LinkedHashSet<String> names = new LinkedHashSet<>();
+            for (String parameter : parameters) {
+                if (!names.add(parameter)) {
+                    declarationError(line, column, "Parameter name " + parameter + "clashes with previous parameters");
+                }
+            }
+            arities.add(names.size());
+
+            // Skip the body, braces only nest in it
+            if (scan.getType() != ImpLexer.LBRACE) {
+                return;
+            }
+            int depth = 0;
+            do {
+                if (scan.getType() == ImpLexer.LBRACE) {
+                    depth++;
+                } else if (scan.getType() == ImpLexer.RBRACE) {
+                    depth--;
+                } else if (scan.getType() == Token.EOF) {
+                    return;
+                }
+                scan.next();
+            } while (depth > 0);
+        }
+    }
+
+    private void declarationError(int line, int column, String message) {
+        if (declarationError == null) {
+            declarationError = message;
+            declarationLine = line;
+            declarationColumn = column;
+        }
+    }
+
+    private IrProgram program() {
+        List<IrFunction> resolved = new ArrayList<>();
+        while (lexer.getType() == ImpLexer.FUN) {
+            resolved.add(function());
+        }
+        scope = new LinkedHashMap<>();
+        Com main = sequence(false);
+        expect(Token.EOF);
+
+        if (declarationError != null) {
+            Utils.panic(declarationLine, declarationColumn, declarationError);
+        }
+        if (callError != null) {
+            Utils.panic(callLine, callColumn, callError);
+        }
+        return new IrProgram(resolved, main, new ArrayList<>(scope.keySet()));
+    }
+
+    private IrFunction function() {
+        int line = lexer.getLine();
+        int column = lexer.getColumn();
+        accept(ImpLexer.FUN);
+        String name = identifier();
+        accept(ImpLexer.LPAR);
+        // Every function has its own frame starting with the parameters
+        scope = new LinkedHashMap<>();
+        if (lexer.getType() == ImpLexer.ID) {
+            slot(identifier());
+            while (lexer.getType() == ImpLexer.COLON) {
+                lexer.next();
+                slot(identifier());
+            }
+        }
+        List<String> parameters = new ArrayList<>(scope.keySet());
+        accept(ImpLexer.RPAR);
+        accept(ImpLexer.LBRACE);
+        Com body = null;
+        if (lexer.getType() != ImpLexer.RETURN) {
+            body = sequence(true);
+            accept(ImpLexer.SEMICOLON);
+        }
+        accept(ImpLexer.RETURN);
+        Exp ret = exp(0);
+        accept(ImpLexer.RBRACE);
+        return new IrFunction(name, parameters, new ArrayList<>(scope.keySet()), body, ret, line, column);
+    }
+
+    // Commands separated by semicolons. In the body of a function the semicolon before return ends the sequence.
+    private Com sequence(boolean body) {
+        int line = lexer.getLine();
+        int column = lexer.getColumn();
+        Com first = command();
+        if (!continues(body)) {
+            return first;
+        }
+        List<Com> commands = new ArrayList<>();
+        commands.add(first);
+        while (continues(body)) {
+            lexer.next();
+            commands.add(command());
+        }
+        return new Com.Seq(line, column, commands);
+    }
+
+    private boolean continues(boolean body) {
+        return lexer.getType() == ImpLexer.SEMICOLON && !(body && lexer.peek() == ImpLexer.RETURN);
+    }
+
+    private Com command() {
+        int line = lexer.getLine();
+        int column = lexer.getColumn();
+        switch (lexer.getType()) {
+            case ImpLexer.IF: {
+                lexer.next();
+                accept(ImpLexer.LPAR);
+                Exp guard = exp(0);
+                accept(ImpLexer.RPAR);
+                accept(ImpLexer.THEN);
+                Com then = block();
+                accept(ImpLexer.ELSE);
+                return new Com.If(line, column, guard, then, block());
+            }
+            case ImpLexer.ID: {
+                String name = identifier();
+                accept(ImpLexer.ASSIGN);
+                // Resolve the expression first, the value is computed before the variable is bound
+                Exp exp = exp(0);
+                return new Com.Assign(line, column, name, slot(name), exp);
+            }
+            case ImpLexer.SKIPP:
+                lexer.next();
+                return new Com.Skip(line, column);
+            case ImpLexer.WHILE: {
+                lexer.next();
+                accept(ImpLexer.LPAR);
+                Exp guard = exp(0);
+                accept(ImpLexer.RPAR);
+                return new Com.While(line, column, guard, block());
+            }
+            case ImpLexer.OUT: {
+                lexer.next();
+                accept(ImpLexer.LPAR);
+                Exp exp = exp(0);
+                accept(ImpLexer.RPAR);
+                return new Com.Out(line, column, exp);
+            }
+            default:
+                throw syntaxError("a command");
+        }
+    }
+
+    private Com block() {
+        accept(ImpLexer.LBRACE);
+        Com com = sequence(false);
+        accept(ImpLexer.RBRACE);
+        return com;
+    }
+
+    // Expression whose binary operators have at least the given precedence. The position of a binary expression
+    // is the one of its first token, a parenthesis included, like the start of the ANTLR context.
+    private Exp exp(int precedence) {
+        int line = lexer.getLine();
+        int column = lexer.getColumn();
+        Exp left = primary();
+        while (true) {
+            int type = lexer.getType();
+            int p = precedence(type);
+            if (p < precedence || p == 0) {
+                return left;
+            }
+            lexer.next();
+            // The power is right associative, the other operators left associative
+            Exp right = exp(type == ImpLexer.POW ? p : p + 1);
+            left = new Exp.Binary(line, column, Op.fromToken(type), left, right);
+        }
+    }
+
+    private static int precedence(int type) {
+        switch (type) {
+            case ImpLexer.POW:
+                return 9;
+            case ImpLexer.DIV:
+            case ImpLexer.MUL:
+            case ImpLexer.MOD:
+                return 7;
+            case ImpLexer.PLUS:
+            case ImpLexer.MINUS:
+                return 6;
+            case ImpLexer.LT:
+            case ImpLexer.LEQ:
+            case ImpLexer.GEQ:
+            case ImpLexer.GT:
+                return 5;
+            case ImpLexer.EQQ:
+            case ImpLexer.NEQ:
+                return 4;
+            case ImpLexer.AND:
+            case ImpLexer.OR:
+                return 3;
+            default:
+                return 0;
+        }
+    }
+
+    private Exp primary() {
+        int line = lexer.getLine();
+        int column = lexer.getColumn();
+        switch (lexer.getType()) {
+            case ImpLexer.NAT: {
+                int value = lexer.nat();
+                lexer.next();
+                return new Exp.Nat(line, column, value);
+            }
+            case ImpLexer.BOOL: {
+                boolean value = lexer.bool();
+                lexer.next();
+                return new Exp.Bool(line, column, value);
+            }
+            case ImpLexer.LPAR: {
+                lexer.next();
+                Exp exp = exp(0);
+                accept(ImpLexer.RPAR);
+                return exp;
+            }
+            case ImpLexer.NOT:
+                lexer.next();
+                return new Exp.Not(line, column, exp(NOT_PRECEDENCE));
+            case ImpLexer.ID: {
+                if (lexer.peek() == ImpLexer.LPAR) {
+                    return call(line, column);
+                }
+                String name = identifier();
+                return new Exp.Var(line, column, name, slot(name));
+            }
+            default:
+                throw syntaxError("an expression");
+        }
+    }
+
+    private Exp call(int line, int column) {
+        int start = lexer.getStart();
+        String name = identifier();
+        accept(ImpLexer.LPAR);
+        List<Exp> args = new ArrayList<>();
+        if (lexer.getType() != ImpLexer.RPAR) {
+            args.add(exp(0));
+            while (lexer.getType() == ImpLexer.COLON) {
+                lexer.next();
+                args.add(exp(0));
+            }
+        }
+        accept(ImpLexer.RPAR);
+
+        // The Resolver checks a call before its arguments, the first wrong call in the source is reported. The calls
+        // are checked in source order, so a call nested in the arguments is only recorded when there isn't one yet.
+        Integer index = functions.get(name);
+        if (index == null) {
+            callError(start, line, column, "Function " + name + " used but never declared");
+            return new Exp.Call(line, column, name, -1, args);
+        }
+        if (args.size() != arities.get(index)) {
+            callError(start, line, column, "Function " + name + " called with the wrong number of arguments");
+        }
+        return new Exp.Call(line, column, name, index, args);
+    }
+
+    private void callError(int start, int line, int column, String message) {
+        if (start < callStart) {
+            callStart = start;
+            callError = message;
+            callLine = line;
+            callColumn = column;
+        }
+    }
+
+    // Slot of the variable in the current scope, allocating a new one the first time the name is seen
+    private int slot(String name) {
+        return scope.computeIfAbsent(name, (k) -> scope.size());
+    }
+
+    private String identifier() {
+        expect(ImpLexer.ID);
+        String name = lexer.name();
+        lexer.next();
+        return name;
+    }
+
+    private void expect(int type) {
+        if (lexer.getType() != type) {
+            throw syntaxError(ImpLexer.VOCABULARY.getDisplayName(type));
+        }
+    }
+
+    private void accept(int type) {
+        expect(type);
+        lexer.next();
+    }
+
+    private RuntimeException syntaxError(String expected) {
+        Utils.panic(lexer.getLine(), lexer.getColumn(),
+                "Syntax error, expected " + expected + " but found '" + lexer.text() + "'");
+        return new IllegalStateException();
+    }
+}
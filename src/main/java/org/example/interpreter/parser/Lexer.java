@@ -0,0 +1,247 @@
+package org.example.interpreter.parser;
+
+import org.antlr.v4.runtime.Token;
+import org.example.Utils;
+import org.example.interpreter.antlr.ImpLexer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Hand written lexer of the language of Imp.g4 over ASCII bytes, the token types are the ones of the ANTLR lexer.
+// The tokens are produced one at a time on request and only the current one and the next are kept, so the input
+// can be a buffer mapped from a file larger than the heap. Positions follow ANTLR: lines from 1, columns from 0.
+public final class Lexer {
+
+    private final ByteBuffer input;
+    private final int limit;
+    private final Names names;
+    // Position of the scan in the input
+    private int position;
+    private int line = 1;
+    private int column;
+
+    // Current token, the text is the input from start to end
+    private int type;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenColumn;
+
+    // Token after the current one, when it was already scanned by peek
+    private boolean peeked;
+    private int nextType;
+    private int nextStart;
+    private int nextEnd;
+    private int nextLine;
+    private int nextColumn;
+
+    // Lexer of the bytes from the position to the limit of the buffer, the buffer is not modified
+    public Lexer(ByteBuffer input, Names names) {
+        this.input = input;
+        this.limit = input.limit();
+        this.position = input.position();
+        this.names = names;
+        next();
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getLine() {
+        return tokenLine;
+    }
+
+    public int getColumn() {
+        return tokenColumn;
+    }
+
+    // Offset of the current token in the input
+    public int getStart() {
+        return start;
+    }
+
+    // Move to the next token
+    public void next() {
+        if (peeked) {
+            peeked = false;
+            type = nextType;
+            start = nextStart;
+            end = nextEnd;
+            tokenLine = nextLine;
+            tokenColumn = nextColumn;
+        } else {
+            scan();
+        }
+    }
+
+    // Type of the token after the current one
+    public int peek() {
+        if (!peeked) {
+            int currentType = type;
+            int currentStart = start;
+            int currentEnd = end;
+            int currentLine = tokenLine;
+            int currentColumn = tokenColumn;
+            scan();
+            nextType = type;
+            nextStart = start;
+            nextEnd = end;
+            nextLine = tokenLine;
+            nextColumn = tokenColumn;
+            type = currentType;
+            start = currentStart;
+            end = currentEnd;
+            tokenLine = currentLine;
+            tokenColumn = currentColumn;
+            peeked = true;
+        }
+        return nextType;
+    }
+
+    // Name of the current ID token, the same string for every occurrence of the name
+    public String name() {
+        return names.intern(input, start, end);
+    }
+
+    // Value of the current NAT token, like Integer.parseInt it fails when it doesn't fit in an int
+    public int nat() {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = input.get(i) - '0';
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("For input string: \"" + text() + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Value of the current BOOL token
+    public boolean bool() {
+        return input.get(start) == 't';
+    }
+
+    public String text() {
+        if (type == Token.EOF) {
+            return "<EOF>";
+        }
+        byte[] bytes = new byte[end - start];
+        input.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private void scan() {
+        while (position < limit) {
+            byte c = input.get(position);
+            if (c == '\n') {
+                line++;
+                column = 0;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                column++;
+            } else {
+                break;
+            }
+            position++;
+        }
+        start = position;
+        tokenLine = line;
+        tokenColumn = column;
+        if (position == limit) {
+            type = Token.EOF;
+            end = position;
+            return;
+        }
+
+        byte c = input.get(position);
+        if (c >= 'a' && c <= 'z') {
+            int i = position + 1;
+            while (i < limit && input.get(i) >= 'a' && input.get(i) <= 'z') {
+                i++;
+            }
+            type = keyword(position, i);
+            advance(i);
+        } else if (c == '0') {
+            type = ImpLexer.NAT;
+            advance(position + 1);
+        } else if (c >= '1' && c <= '9') {
+            int i = position + 1;
+            while (i < limit && input.get(i) >= '0' && input.get(i) <= '9') {
+                i++;
+            }
+            type = ImpLexer.NAT;
+            advance(i);
+        } else {
+            type = symbol(c, position + 1 < limit ? input.get(position + 1) : 0);
+            advance(position + (type == ImpLexer.EQQ || type == ImpLexer.NEQ || type == ImpLexer.LEQ
+                    || type == ImpLexer.GEQ ? 2 : 1));
+        }
+    }
+
+    private void advance(int to) {
+        column += to - position;
+        position = to;
+        end = to;
+    }
+
+    private int symbol(byte c, byte next) {
+        switch (c) {
+            case '+': return ImpLexer.PLUS;
+            case '-': return ImpLexer.MINUS;
+            case '*': return ImpLexer.MUL;
+            case '/': return ImpLexer.DIV;
+            case '^': return ImpLexer.POW;
+            case '&': return ImpLexer.AND;
+            case '|': return ImpLexer.OR;
+            case '(': return ImpLexer.LPAR;
+            case ')': return ImpLexer.RPAR;
+            case '{': return ImpLexer.LBRACE;
+            case '}': return ImpLexer.RBRACE;
+            case ';': return ImpLexer.SEMICOLON;
+            case ',': return ImpLexer.COLON;
+            case '=': return next == '=' ? ImpLexer.EQQ : ImpLexer.ASSIGN;
+            case '!': return next == '=' ? ImpLexer.NEQ : ImpLexer.NOT;
+            case '<': return next == '=' ? ImpLexer.LEQ : ImpLexer.LT;
+            case '>': return next == '=' ? ImpLexer.GEQ : ImpLexer.GT;
+            default:
+                Utils.panic(line, column, "Syntax error, unexpected character '" + (char) (c & 0xFF) + "'");
+                return Token.INVALID_TYPE;
+        }
+    }
+
+    // The keywords are matched only on the whole word, like the longest match of the ANTLR lexer
+    private int keyword(int from, int to) {
+        switch (to - from) {
+            case 2:
+                return matches(from, "if") ? ImpLexer.IF : ImpLexer.ID;
+            case 3:
+                return matches(from, "out") ? ImpLexer.OUT
+                        : matches(from, "fun") ? ImpLexer.FUN
+                        : matches(from, "mod") ? ImpLexer.MOD
+                        : ImpLexer.ID;
+            case 4:
+                return matches(from, "then") ? ImpLexer.THEN
+                        : matches(from, "else") ? ImpLexer.ELSE
+                        : matches(from, "skip") ? ImpLexer.SKIPP
+                        : matches(from, "true") ? ImpLexer.BOOL
+                        : ImpLexer.ID;
+            case 5:
+                return matches(from, "while") ? ImpLexer.WHILE
+                        : matches(from, "false") ? ImpLexer.BOOL
+                        : ImpLexer.ID;
+            case 6:
+                return matches(from, "return") ? ImpLexer.RETURN : ImpLexer.ID;
+            default:
+                return ImpLexer.ID;
+        }
+    }
+
+    private boolean matches(int from, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (input.get(from + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
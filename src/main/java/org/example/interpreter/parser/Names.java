@@ -0,0 +1,67 @@
+package org.example.interpreter.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Table of the names read by the Lexer, so every occurrence of a name is the same string and a string is created
+// only the first time a name is seen. Open addressing on the hash of the bytes.
+public final class Names {
+
+    private String[] names = new String[64];
+    private int size;
+
+    public String intern(ByteBuffer input, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + input.get(i);
+        }
+        int mask = names.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            String name = names[i];
+            if (name == null) {
+                byte[] bytes = new byte[end - start];
+                input.get(start, bytes);
+                name = new String(bytes, StandardCharsets.US_ASCII);
+                names[i] = name;
+                if (++size * 2 > names.length) {
+                    grow();
+                }
+                return name;
+            } else if (matches(name, input, start, end)) {
+                return name;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean matches(String name, ByteBuffer input, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != input.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] old = names;
+        names = new String[old.length * 2];
+        int mask = names.length - 1;
+        for (String name : old) {
+            if (name != null) {
+                // The hash of an ASCII string is the same of its bytes
+                int i = name.hashCode() & mask;
+                while (names[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                names[i] = name;
+            }
+        }
+    }
+}
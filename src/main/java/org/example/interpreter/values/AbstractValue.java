@@ -4,31 +4,24 @@ import java.util.Objects;
 
 public abstract class AbstractValue<T> extends AbstractReturnValue {
 
-    protected final T value;
-
-    public AbstractValue(T value) {
-        this.value = value;
-    }
-
-    public T getValue() {
-        return value;
-    }
+    // The value boxed in its Java type, the subclasses store it unboxed
+    public abstract T getValue();
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AbstractValue<?> that = (AbstractValue<?>) o;
-        return Objects.equals(value, that.value);
+        return Objects.equals(getValue(), that.getValue());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(value);
+        return Objects.hashCode(getValue());
     }
 
     @Override
     public String toString() {
-        return this.value.toString();
+        return String.valueOf(getValue());
     }
 }
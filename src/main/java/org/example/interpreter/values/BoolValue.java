@@ -2,7 +2,41 @@ package org.example.interpreter.values;
 
 public class BoolValue extends AbstractValue<Boolean> {
 
-    public BoolValue(Boolean value) {
-        super(value);
+    // The only two instances, so booleans are never allocated
+    public static final BoolValue TRUE = new BoolValue(true);
+    public static final BoolValue FALSE = new BoolValue(false);
+
+    private final boolean value;
+
+    private BoolValue(boolean value) {
+        this.value = value;
+    }
+
+    public static BoolValue of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public boolean booleanValue() {
+        return value;
+    }
+
+    @Override
+    public Boolean getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Boolean.toString(value);
     }
 }
@@ -1,7 +1,53 @@
 package org.example.interpreter.values;
 
 public class IntegerValue extends AbstractValue<Integer> {
-    public IntegerValue(Integer value) {
-        super(value);
+
+    // Shared instances of the small naturals, the ones used as counters and indexes
+    private static final int CACHE_SIZE = 1024;
+    private static final IntegerValue[] CACHE = new IntegerValue[CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            CACHE[i] = new IntegerValue(i);
+        }
+    }
+
+    private final int value;
+
+    private IntegerValue(int value) {
+        this.value = value;
+    }
+
+    public static IntegerValue of(int value) {
+        if (value >= 0 && value < CACHE_SIZE) {
+            return CACHE[value];
+        }
+        return new IntegerValue(value);
+    }
+
+    public int intValue() {
+        return value;
+    }
+
+    @Override
+    public Integer getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntegerValue)) return false;
+        return value == ((IntegerValue) o).value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(value);
     }
 }
@@ -1,8 +1,15 @@
 package org.example.interpreter.values;
 
 public class VoidValue extends AbstractValue<Void> {
-    public VoidValue() {
-        super(null);
+
+    // Result of every command, there is no need for more than one
+    public static final VoidValue VOID = new VoidValue();
+
+    private VoidValue() {
     }
 
+    @Override
+    public Void getValue() {
+        return null;
+    }
 }
@@ -0,0 +1,199 @@
+package org.example.interpreter.vm;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Binary file of a compiled program, loaded by mapping it in memory so the source is not lexed and parsed again.
+// The header holds the magic, the version of the format, the hash of the source the program was compiled from and
+// the CRC32 of the rest of the file. The body has the constant pool, the functions and the top level command, every
+// chunk with its code and the source positions used by the diagnostics. Integers are big endian.
+public final class BytecodeFile {
+
+    private static final int MAGIC = 0x48464243; // HFBC
+    // Changed every time the layout of the file or the meaning of the opcodes changes
+    public static final int VERSION = 1;
+    public static final int HASH_LENGTH = 32;
+    // Magic, version, hash, checksum and length of the body
+    private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH + 8 + 4;
+
+    private BytecodeFile() {
+    }
+
+    // Write the program compiled from the source with the given hash. The file is replaced atomically, so a reader
+    // never sees a half written file.
+    public static void write(Path path, BytecodeProgram program, byte[] sourceHash) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(bodyLength(program));
+        body.put((byte) (program.isChecked() ? 1 : 0));
+        putInts(body, program.getConstants());
+        body.putInt(program.getFunctions().size());
+        for (Chunk chunk : program.getFunctions()) {
+            putChunk(body, chunk);
+        }
+        putChunk(body, program.getMain());
+        body.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC).putInt(VERSION).put(sourceHash, 0, HASH_LENGTH).putLong(crc.getValue())
+                .putInt(body.remaining());
+        header.flip();
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {header, body};
+            while (body.hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The program in the file, null when the file is missing, of another version, compiled from a different source
+    // or corrupted
+    public static @Nullable BytecodeProgram read(Path path, byte[] sourceHash) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH || channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        byte[] hash = new byte[HASH_LENGTH];
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        buffer.get(hash);
+        long checksum = buffer.getLong();
+        int length = buffer.getInt();
+        if (!Arrays.equals(hash, sourceHash) || length != buffer.remaining()) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != checksum) {
+            return null;
+        }
+
+        try {
+            boolean checked = buffer.get() != 0;
+            int[] constants = getInts(buffer);
+            int count = buffer.getInt();
+            List<Chunk> functions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                functions.add(getChunk(buffer));
+            }
+            Chunk main = getChunk(buffer);
+            return new BytecodeProgram(functions, main, constants, checked);
+        } catch (RuntimeException e) {
+            // A body with a valid checksum but not readable was written by a broken writer, compile it again
+            return null;
+        }
+    }
+
+    private static int bodyLength(BytecodeProgram program) {
+        int length = 1 + 4 + program.getConstants().length * 4 + 4;
+        for (Chunk chunk : program.getFunctions()) {
+            length += chunkLength(chunk);
+        }
+        return length + chunkLength(program.getMain());
+    }
+
+    private static int chunkLength(Chunk chunk) {
+        int length = stringLength(chunk.getName()) + 4 + 4 + 4;
+        for (String slot : chunk.getSlots()) {
+            length += stringLength(slot);
+        }
+        return length + 3 * (4 + chunk.getCode().length * 4);
+    }
+
+    private static int stringLength(String str) {
+        return 4 + str.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putChunk(ByteBuffer buffer, Chunk chunk) {
+        putString(buffer, chunk.getName());
+        buffer.putInt(chunk.getArity());
+        buffer.putInt(chunk.getSlots().size());
+        for (String slot : chunk.getSlots()) {
+            putString(buffer, slot);
+        }
+        buffer.putInt(chunk.getRegisters());
+        int[] code = chunk.getCode();
+        int[] lines = new int[code.length];
+        int[] columns = new int[code.length];
+        for (int pc = 0; pc < code.length; pc++) {
+            lines[pc] = chunk.getLine(pc);
+            columns[pc] = chunk.getColumn(pc);
+        }
+        putInts(buffer, code);
+        putInts(buffer, lines);
+        putInts(buffer, columns);
+    }
+
+    private static Chunk getChunk(ByteBuffer buffer) {
+        String name = getString(buffer);
+        int arity = buffer.getInt();
+        int count = buffer.getInt();
+        List<String> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slots.add(getString(buffer));
+        }
+        int registers = buffer.getInt();
+        int[] code = getInts(buffer);
+        int[] lines = getInts(buffer);
+        int[] columns = getInts(buffer);
+        if (lines.length != code.length || columns.length != code.length) {
+            throw new IllegalStateException("Positions don't match the code of " + name);
+        }
+        return new Chunk(name, arity, slots, registers, code, lines, columns);
+    }
+
+    private static void putString(ByteBuffer buffer, String str) {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.putInt(values.length);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 4);
+    }
+
+    // The array is copied from the mapped file with a bulk get
+    private static int[] getInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / 4) {
+            throw new IllegalStateException("Array longer than the file: " + length);
+        }
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.interpreter.vm;
+
+import java.util.List;
+
+public class BytecodeProgram {
+
+    // Compiled functions, indexed like the function table of the IR
+    private final List<Chunk> functions;
+    private final Chunk main;
+    // Constant pool of the natural literals
+    private final int[] constants;
+    // The program passed the static checks, so the registers always have the expected type
+    private final boolean checked;
+
+    public BytecodeProgram(List<Chunk> functions, Chunk main, int[] constants, boolean checked) {
+        this.functions = List.copyOf(functions);
+        this.main = main;
+        this.constants = constants;
+        this.checked = checked;
+    }
+
+    public List<Chunk> getFunctions() {
+        return functions;
+    }
+
+    public Chunk getFunction(int index) {
+        return functions.get(index);
+    }
+
+    public Chunk getMain() {
+        return main;
+    }
+
+    public int[] getConstants() {
+        return constants;
+    }
+
+    public boolean isChecked() {
+        return checked;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.interpreter.vm;
+
+import java.util.List;
+
+// Compiled code of a function or of the top level command
+public class Chunk {
+
+    private final String name;
+    private final int arity;
+    // Names of the variables, the variable with slot i lives in the register i
+    private final List<String> slots;
+    // Number of registers of the frame, the variables followed by the temporaries
+    private final int registers;
+    private final int[] code;
+    // Source position of the value referred by each word of the code, used for diagnostics
+    private final int[] lines;
+    private final int[] columns;
+
+    public Chunk(String name, int arity, List<String> slots, int registers, int[] code, int[] lines, int[] columns) {
+        this.name = name;
+        this.arity = arity;
+        this.slots = List.copyOf(slots);
+        this.registers = registers;
+        this.code = code;
+        this.lines = lines;
+        this.columns = columns;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    public List<String> getSlots() {
+        return slots;
+    }
+
+    public int getRegisters() {
+        return registers;
+    }
+
+    public int[] getCode() {
+        return code;
+    }
+
+    public int getLine(int pc) {
+        return lines[pc];
+    }
+
+    public int getColumn(int pc) {
+        return columns[pc];
+    }
+}
@@ -0,0 +1,335 @@
+package org.example.interpreter.vm;
+
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.Node;
+import org.example.interpreter.ir.Op;
+import org.example.interpreter.ir.TailCalls;
+import org.example.interpreter.ir.Typing;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+// Compile the resolved IR to register bytecode. The variables of a function are its first registers, the
+// expressions are evaluated in temporaries allocated after them. Visiting an expression returns the register
+// holding its value, visiting a command returns null.
+public class Compiler implements IrVisitor<Integer> {
+
+    // Constant pool of the program and the index of each value in it
+    private final List<Integer> constants = new ArrayList<>();
+    private final HashMap<Integer, Integer> constantIndexes = new HashMap<>();
+    // The program passed the static checks, no type check is emitted
+    private final boolean checked;
+
+    // Code of the chunk being compiled and the source position of every word
+    private int[] code;
+    private int[] lines;
+    private int[] columns;
+    private int size;
+    // Number of variable registers, next free temporary and number of registers used
+    private int slots;
+    private int next;
+    private int registers;
+    // Position in the code of the destination register of the last emitted instruction, -1 if it has none
+    private int lastDst;
+    // Assignments in tail position of the chunk being compiled
+    private Set<Com.Assign> tailCalls;
+
+    private Compiler(boolean checked) {
+        this.checked = checked;
+    }
+
+    public static BytecodeProgram compile(IrProgram program) {
+        return compile(program, null);
+    }
+
+    // Compile a program, if it has been checked the typing is given and the VM skips the type checks
+    public static BytecodeProgram compile(IrProgram program, @Nullable Typing typing) {
+        Compiler compiler = new Compiler(typing != null);
+        List<Chunk> functions = new ArrayList<>();
+        for (IrFunction fun : program.getFunctions()) {
+            compiler.tailCalls = TailCalls.of(fun);
+            functions.add(compiler.chunk(fun.getName(), fun.getArity(), fun.getSlots(), fun.getBody(), fun.getRet()));
+        }
+        compiler.tailCalls = Set.of();
+        Chunk main = compiler.chunk("main", 0, program.getSlots(), program.getMain(), null);
+        int[] constants = compiler.constants.stream().mapToInt(Integer::intValue).toArray();
+        return new BytecodeProgram(functions, main, constants, compiler.checked);
+    }
+
+    private Chunk chunk(String name, int arity, List<String> slots, @Nullable Com body, @Nullable Exp ret) {
+        code = new int[64];
+        lines = new int[64];
+        columns = new int[64];
+        size = 0;
+        this.slots = slots.size();
+        next = this.slots;
+        registers = this.slots;
+        lastDst = -1;
+
+        if (body != null) {
+            body.accept(this);
+        }
+        // Functions return the value of their expression, the top level command just stops
+        if (ret != null) {
+            int src = ret.accept(this);
+            emit(Opcode.RET, ret);
+            emit(src, ret);
+        } else {
+            emit(Opcode.HALT, null);
+        }
+        return new Chunk(name, arity, slots, registers, Arrays.copyOf(code, size), Arrays.copyOf(lines, size),
+                Arrays.copyOf(columns, size));
+    }
+
+    // Append a word to the code, with the position of the node it refers to
+    private int emit(int word, @Nullable Node at) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+            lines = Arrays.copyOf(lines, size * 2);
+            columns = Arrays.copyOf(columns, size * 2);
+        }
+        code[size] = word;
+        lines[size] = at != null ? at.getLine() : 0;
+        columns[size] = at != null ? at.getColumn() : 0;
+        return size++;
+    }
+
+    private void emitOp(int opcode, Node at) {
+        lastDst = -1;
+        emit(opcode, at);
+    }
+
+    private void emitDst(int dst, Node at) {
+        lastDst = emit(dst, at);
+    }
+
+    private int temp() {
+        int reg = next++;
+        registers = Math.max(registers, next);
+        return reg;
+    }
+
+    private int constant(int value) {
+        return constantIndexes.computeIfAbsent(value, (v) -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    // Check the value of an operand before evaluating an expression with a call, so a type error panics before
+    // the call could write some output like in the tree interpreter
+    private void emitCheck(int reg, int kind, Exp exp) {
+        emitOp(Opcode.CHECK, exp);
+        emit(reg, exp);
+        emit(kind, exp);
+    }
+
+    private static boolean hasCall(Exp exp) {
+        if (exp instanceof Exp.Call) {
+            return true;
+        } else if (exp instanceof Exp.Binary) {
+            return hasCall(((Exp.Binary) exp).getLeft()) || hasCall(((Exp.Binary) exp).getRight());
+        } else if (exp instanceof Exp.Not) {
+            return hasCall(((Exp.Not) exp).getExp());
+        }
+        return false;
+    }
+
+    private static int opcode(Op op) {
+        return switch (op) {
+            case POW -> Opcode.POW;
+            case MUL -> Opcode.MUL;
+            case DIV -> Opcode.DIV;
+            case MOD -> Opcode.MOD;
+            case SHL -> Opcode.SHL;
+            case SHR -> Opcode.SHR;
+            case MASK -> Opcode.MASK;
+            case SQUARE -> Opcode.SQUARE;
+            case PLUS -> Opcode.ADD;
+            case MINUS -> Opcode.SUB;
+            case LT -> Opcode.LT;
+            case LEQ -> Opcode.LEQ;
+            case GEQ -> Opcode.GEQ;
+            case GT -> Opcode.GT;
+            case EQQ -> Opcode.EQ;
+            case NEQ -> Opcode.NEQ;
+            case AND -> Opcode.AND;
+            case OR -> Opcode.OR;
+        };
+    }
+
+    @Override
+    public Integer visitNat(Exp.Nat exp) {
+        int dst = temp();
+        emitOp(Opcode.LOADK, exp);
+        emitDst(dst, exp);
+        emit(constant(exp.getValue()), exp);
+        return dst;
+    }
+
+    @Override
+    public Integer visitBool(Exp.Bool exp) {
+        int dst = temp();
+        emitOp(Opcode.LOADB, exp);
+        emitDst(dst, exp);
+        emit(exp.getValue() ? 1 : 0, exp);
+        return dst;
+    }
+
+    @Override
+    public Integer visitVar(Exp.Var exp) {
+        // Variables are read directly from their register, the instruction using it checks that it's set
+        return exp.getSlot();
+    }
+
+    @Override
+    public Integer visitBinary(Exp.Binary exp) {
+        int mark = next;
+        int left = exp.getLeft().accept(this);
+        if (!checked && hasCall(exp.getRight())) {
+            Op op = exp.getOp();
+            int kind = op.isLogic() ? Opcode.BOOL : op.isEquality() ? Opcode.ANY : Opcode.NAT;
+            emitCheck(left, kind, exp.getLeft());
+        }
+        int right = exp.getRight().accept(this);
+
+        // The operands are read before the result is written, so the destination can reuse their temporaries
+        next = mark;
+        int dst = temp();
+        emitOp(opcode(exp.getOp()), exp);
+        emitDst(dst, exp);
+        emit(left, exp.getLeft());
+        emit(right, exp.getRight());
+        return dst;
+    }
+
+    @Override
+    public Integer visitNot(Exp.Not exp) {
+        int mark = next;
+        int src = exp.getExp().accept(this);
+        next = mark;
+        int dst = temp();
+        emitOp(Opcode.NOT, exp);
+        emitDst(dst, exp);
+        emit(src, exp.getExp());
+        return dst;
+    }
+
+    @Override
+    public Integer visitCall(Exp.Call exp) {
+        int mark = next;
+        int[] regs = arguments(exp);
+        next = mark;
+        int dst = temp();
+        emitOp(Opcode.CALL, exp);
+        emitDst(dst, exp);
+        emitCall(exp, regs);
+        return dst;
+    }
+
+    // Evaluate the arguments of a call in registers
+    private int[] arguments(Exp.Call exp) {
+        List<Exp> args = exp.getArgs();
+        int[] regs = new int[args.size()];
+        for (int i = 0; i < args.size(); i++) {
+            regs[i] = args.get(i).accept(this);
+            if (!checked && args.get(i) instanceof Exp.Var && args.subList(i + 1, args.size()).stream().anyMatch(Compiler::hasCall)) {
+                emitCheck(regs[i], Opcode.ANY, args.get(i));
+            }
+        }
+        return regs;
+    }
+
+    // Operands of a call after the destination: the function, the number of arguments and their registers
+    private void emitCall(Exp.Call exp, int[] regs) {
+        emit(exp.getFunction(), exp);
+        emit(regs.length, exp);
+        for (int i = 0; i < regs.length; i++) {
+            emit(regs[i], exp.getArgs().get(i));
+        }
+    }
+
+    @Override
+    public Integer visitSkip(Com.Skip com) {
+        return null;
+    }
+
+    @Override
+    public Integer visitAssign(Com.Assign com) {
+        if (tailCalls.contains(com)) {
+            Exp.Call call = (Exp.Call) com.getExp();
+            int[] regs = arguments(call);
+            emitOp(Opcode.TAILCALL, call);
+            emitCall(call, regs);
+            next = slots;
+            return null;
+        }
+        int src = com.getExp().accept(this);
+        if (src >= slots && lastDst >= 0 && code[lastDst] == src) {
+            // The value was computed in a temporary, write it directly in the variable
+            code[lastDst] = com.getSlot();
+        } else {
+            emitOp(Opcode.MOVE, com);
+            emitDst(com.getSlot(), com);
+            emit(src, com.getExp());
+        }
+        next = slots;
+        return null;
+    }
+
+    @Override
+    public Integer visitSeq(Com.Seq com) {
+        for (Com command : com.getCommands()) {
+            command.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Integer visitIf(Com.If com) {
+        int guard = com.getGuard().accept(this);
+        next = slots;
+        emitOp(Opcode.JMPF, com);
+        emit(guard, com.getGuard());
+        int otherwise = emit(0, com);
+        com.getThen().accept(this);
+        emitOp(Opcode.JMP, com);
+        int end = emit(0, com);
+        code[otherwise] = size;
+        com.getOtherwise().accept(this);
+        code[end] = size;
+        return null;
+    }
+
+    @Override
+    public Integer visitWhile(Com.While com) {
+        int start = size;
+        int guard = com.getGuard().accept(this);
+        next = slots;
+        emitOp(Opcode.JMPF, com);
+        emit(guard, com.getGuard());
+        int end = emit(0, com);
+        com.getBody().accept(this);
+        emitOp(Opcode.JMP, com);
+        emit(start, com);
+        code[end] = size;
+        return null;
+    }
+
+    @Override
+    public Integer visitOut(Com.Out com) {
+        int src = com.getExp().accept(this);
+        next = slots;
+        emitOp(Opcode.OUT, com);
+        emit(src, com.getExp());
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.interpreter.vm;
+
+// Instruction set of the register VM. Every instruction is an opcode followed by its operands in the code array,
+// registers are relative to the base of the frame of the running function.
+public final class Opcode {
+
+    // LOADK dst, const: load a natural from the constant pool
+    public static final int LOADK = 0;
+    // LOADB dst, 0|1: load a boolean
+    public static final int LOADB = 1;
+    // MOVE dst, src
+    public static final int MOVE = 2;
+    // CHECK reg, kind: panic if the register is unset or (kind != ANY) of the wrong type
+    public static final int CHECK = 3;
+
+    // Natural operations, OP dst, left, right
+    public static final int POW = 4;
+    public static final int MUL = 5;
+    public static final int DIV = 6;
+    public static final int MOD = 7;
+    public static final int ADD = 8;
+    public static final int SUB = 9;
+    public static final int LT = 10;
+    public static final int LEQ = 11;
+    public static final int GEQ = 12;
+    public static final int GT = 13;
+    // Equality on any type, OP dst, left, right
+    public static final int EQ = 14;
+    public static final int NEQ = 15;
+    // Boolean operations, OP dst, left, right
+    public static final int AND = 16;
+    public static final int OR = 17;
+    // NOT dst, src
+    public static final int NOT = 18;
+
+    // JMP target
+    public static final int JMP = 19;
+    // JMPF guard, target: jump if the guard is false
+    public static final int JMPF = 20;
+    // CALL dst, function, argc, arg1, ..., argN
+    public static final int CALL = 21;
+    // RET src
+    public static final int RET = 22;
+    // OUT src
+    public static final int OUT = 23;
+    // HALT: end of the top level command
+    public static final int HALT = 24;
+
+    // Strength reduced natural operations, OP dst, left, right where right holds the exponent of a power of two
+    public static final int SHL = 25;
+    public static final int SHR = 26;
+    public static final int MASK = 27;
+    public static final int SQUARE = 28;
+
+    // TAILCALL function, argc, arg1, ..., argN: call in tail position, the callee replaces the running function in
+    // its frame and returns to its caller
+    public static final int TAILCALL = 29;
+
+    // Type tags of the registers
+    public static final byte UNSET = 0;
+    public static final byte NAT = 1;
+    public static final byte BOOL = 2;
+    // Kind for CHECK that only requires the register to be set
+    public static final int ANY = 0;
+
+    private Opcode() {
+    }
+}
@@ -0,0 +1,339 @@
+package org.example.interpreter.vm;
+
+import org.example.Utils;
+import org.example.interpreter.Meter;
+import org.example.interpreter.ir.Op;
+import org.example.interpreter.output.OutputSink;
+
+import java.util.Arrays;
+
+// Register VM running the bytecode produced by the Compiler. All the frames share a single register file, every
+// register has a value and a type tag. The frame of a called function starts right after the caller one.
+public class Vm {
+
+    private final BytecodeProgram program;
+    private final Chunk[] functions;
+    private final int[] constants;
+    // The program passed the static checks, the type tags don't need to be checked
+    private final boolean checked;
+    // Program output, flushed at the end of the program
+    private final OutputSink out;
+    // Register file, values and type tags
+    private int[] values;
+    private byte[] tags;
+    // Call stack on the heap, for every running call the chunk and the caller state to restore on return: the chunk,
+    // the pc after the call, the base of the frame and the destination register of the result
+    private Chunk[] callChunks;
+    private int[] callStates;
+    // Calls and loop iterations of the run, it also bounds the depth of the calls
+    private final Meter meter;
+
+    // The calls nest up to the max depth, then the program panics for stack overflow
+    public Vm(BytecodeProgram program, int maxDepth, OutputSink out) {
+        this(program, maxDepth, out, new Meter());
+    }
+
+    public Vm(BytecodeProgram program, int maxDepth, OutputSink out, Meter meter) {
+        this.program = program;
+        this.meter = meter;
+        this.out = out;
+        meter.limitDepth(maxDepth);
+        this.callChunks = new Chunk[16];
+        this.callStates = new int[16 * 3];
+        this.functions = program.getFunctions().toArray(new Chunk[0]);
+        this.constants = program.getConstants();
+        this.checked = program.isChecked();
+        this.values = new int[256];
+        this.tags = new byte[256];
+    }
+
+    public void run() {
+        Chunk main = program.getMain();
+        ensureCapacity(main.getRegisters());
+        try {
+            execute(main, 0);
+        } finally {
+            out.flush();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            int length = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, length);
+            tags = Arrays.copyOf(tags, length);
+        }
+    }
+
+    // Panic for a register with the wrong type, the operand at pc is the register that was read
+    private void mismatch(Chunk chunk, int base, int pc, byte expected) {
+        int reg = chunk.getCode()[pc];
+        if (tags[base + reg] == Opcode.UNSET) {
+            Utils.panic(chunk.getLine(pc), chunk.getColumn(pc),
+                    "Variable " + chunk.getSlots().get(reg) + " used but never instantiated");
+        }
+        Utils.panic(chunk.getLine(pc), chunk.getColumn(pc), expected == Opcode.NAT
+                ? "Type mismatch, natural expression expected."
+                : "Type mismatch, boolean expression expected.");
+    }
+
+    // Read the natural in the register of the operand at pc
+    private int nat(Chunk chunk, int base, int pc) {
+        int reg = base + chunk.getCode()[pc];
+        if (!checked && tags[reg] != Opcode.NAT) {
+            mismatch(chunk, base, pc, Opcode.NAT);
+        }
+        return values[reg];
+    }
+
+    // Read the boolean in the register of the operand at pc
+    private boolean bool(Chunk chunk, int base, int pc) {
+        int reg = base + chunk.getCode()[pc];
+        if (!checked && tags[reg] != Opcode.BOOL) {
+            mismatch(chunk, base, pc, Opcode.BOOL);
+        }
+        return values[reg] != 0;
+    }
+
+    // Index of the register of the operand at pc, panics if the register was never set
+    private int set(Chunk chunk, int base, int pc) {
+        int reg = base + chunk.getCode()[pc];
+        if (!checked && tags[reg] == Opcode.UNSET) {
+            mismatch(chunk, base, pc, Opcode.UNSET);
+        }
+        return reg;
+    }
+
+    private void store(int reg, byte tag, int value) {
+        tags[reg] = tag;
+        values[reg] = value;
+    }
+
+    private void store(int reg, boolean value) {
+        tags[reg] = Opcode.BOOL;
+        values[reg] = value ? 1 : 0;
+    }
+
+    // Execute the code iteratively: a call saves the caller state on the call stack and continues in the callee, so
+    // the depth of the calls is bounded by memory and the max depth, not by the Java stack
+    private void execute(Chunk chunk, int base) {
+        int[] code = chunk.getCode();
+        int pc = 0;
+        int depth = 0;
+        while (true) {
+            switch (code[pc]) {
+                case Opcode.LOADK -> {
+                    store(base + code[pc + 1], Opcode.NAT, constants[code[pc + 2]]);
+                    pc += 3;
+                }
+                case Opcode.LOADB -> {
+                    store(base + code[pc + 1], Opcode.BOOL, code[pc + 2]);
+                    pc += 3;
+                }
+                case Opcode.MOVE -> {
+                    int src = set(chunk, base, pc + 2);
+                    store(base + code[pc + 1], tags[src], values[src]);
+                    pc += 3;
+                }
+                case Opcode.CHECK -> {
+                    int kind = code[pc + 2];
+                    if (kind == Opcode.NAT) {
+                        nat(chunk, base, pc + 1);
+                    } else if (kind == Opcode.BOOL) {
+                        bool(chunk, base, pc + 1);
+                    } else {
+                        set(chunk, base, pc + 1);
+                    }
+                    pc += 3;
+                }
+                case Opcode.POW -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, (int) Math.pow(left, right));
+                    pc += 4;
+                }
+                case Opcode.MUL -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, left * right);
+                    pc += 4;
+                }
+                case Opcode.DIV -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, left / right);
+                    pc += 4;
+                }
+                case Opcode.MOD -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, left % right);
+                    pc += 4;
+                }
+                case Opcode.SHL -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, left << right);
+                    pc += 4;
+                }
+                case Opcode.SHR -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, Op.shiftDiv(left, right));
+                    pc += 4;
+                }
+                case Opcode.MASK -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, Op.shiftMod(left, right));
+                    pc += 4;
+                }
+                case Opcode.SQUARE -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, Op.squares(left, right));
+                    pc += 4;
+                }
+                case Opcode.ADD -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, left + right);
+                    pc += 4;
+                }
+                case Opcode.SUB -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], Opcode.NAT, Math.max(left - right, 0));
+                    pc += 4;
+                }
+                case Opcode.LT -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left < right);
+                    pc += 4;
+                }
+                case Opcode.LEQ -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left <= right);
+                    pc += 4;
+                }
+                case Opcode.GEQ -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left >= right);
+                    pc += 4;
+                }
+                case Opcode.GT -> {
+                    int left = nat(chunk, base, pc + 2);
+                    int right = nat(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left > right);
+                    pc += 4;
+                }
+                case Opcode.EQ, Opcode.NEQ -> {
+                    int left = set(chunk, base, pc + 2);
+                    int right = set(chunk, base, pc + 3);
+                    boolean equals = tags[left] == tags[right] && values[left] == values[right];
+                    store(base + code[pc + 1], code[pc] == Opcode.EQ == equals);
+                    pc += 4;
+                }
+                case Opcode.AND -> {
+                    boolean left = bool(chunk, base, pc + 2);
+                    boolean right = bool(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left && right);
+                    pc += 4;
+                }
+                case Opcode.OR -> {
+                    boolean left = bool(chunk, base, pc + 2);
+                    boolean right = bool(chunk, base, pc + 3);
+                    store(base + code[pc + 1], left || right);
+                    pc += 4;
+                }
+                case Opcode.NOT -> {
+                    store(base + code[pc + 1], !bool(chunk, base, pc + 2));
+                    pc += 3;
+                }
+                case Opcode.JMP -> {
+                    // The only jumps back are the ones at the end of the loops
+                    if (code[pc + 1] < pc) {
+                        meter.iteration(chunk.getLine(pc), chunk.getColumn(pc));
+                    }
+                    pc = code[pc + 1];
+                }
+                case Opcode.JMPF -> pc = bool(chunk, base, pc + 1) ? pc + 3 : code[pc + 2];
+                case Opcode.CALL -> {
+                    Chunk callee = functions[code[pc + 2]];
+                    int argc = code[pc + 3];
+                    // The callee frame starts after the registers of the caller
+                    int calleeBase = base + chunk.getRegisters();
+                    ensureCapacity(calleeBase + callee.getRegisters());
+                    for (int i = 0; i < argc; i++) {
+                        int arg = set(chunk, base, pc + 4 + i);
+                        store(calleeBase + i, tags[arg], values[arg]);
+                    }
+                    Arrays.fill(tags, calleeBase + argc, calleeBase + callee.getRegisters(), Opcode.UNSET);
+                    // Past the max depth the meter panics for stack overflow
+                    meter.enter(chunk.getLine(pc), chunk.getColumn(pc));
+                    push(depth++, chunk, pc + 4 + argc, base, code[pc + 1]);
+                    chunk = callee;
+                    code = chunk.getCode();
+                    base = calleeBase;
+                    pc = 0;
+                }
+                case Opcode.TAILCALL -> {
+                    Chunk callee = functions[code[pc + 1]];
+                    int argc = code[pc + 2];
+                    // The arguments go after the registers of the frame and then to its base, as they could overlap
+                    int temp = base + chunk.getRegisters();
+                    ensureCapacity(Math.max(temp + argc, base + callee.getRegisters()));
+                    for (int i = 0; i < argc; i++) {
+                        int arg = set(chunk, base, pc + 3 + i);
+                        store(temp + i, tags[arg], values[arg]);
+                    }
+                    System.arraycopy(values, temp, values, base, argc);
+                    System.arraycopy(tags, temp, tags, base, argc);
+                    Arrays.fill(tags, base + argc, base + callee.getRegisters(), Opcode.UNSET);
+                    meter.tailCall(chunk.getLine(pc), chunk.getColumn(pc));
+                    chunk = callee;
+                    code = chunk.getCode();
+                    pc = 0;
+                }
+                case Opcode.RET -> {
+                    int src = set(chunk, base, pc + 1);
+                    // Back to the caller, the result goes in its destination register
+                    depth--;
+                    meter.exit();
+                    chunk = callChunks[depth];
+                    code = chunk.getCode();
+                    pc = callStates[depth * 3];
+                    base = callStates[depth * 3 + 1];
+                    store(base + callStates[depth * 3 + 2], tags[src], values[src]);
+                }
+                case Opcode.OUT -> {
+                    int src = set(chunk, base, pc + 1);
+                    if (tags[src] == Opcode.NAT) {
+                        out.writeInt(values[src]);
+                    } else {
+                        out.writeBool(values[src] != 0);
+                    }
+                    pc += 2;
+                }
+                case Opcode.HALT -> {
+                    return;
+                }
+                default -> throw new IllegalStateException("Unexpected opcode: " + code[pc]);
+            }
+        }
+    }
+
+    private void push(int depth, Chunk chunk, int pc, int base, int dst) {
+        if (depth == callChunks.length) {
+            callChunks = Arrays.copyOf(callChunks, depth * 2);
+            callStates = Arrays.copyOf(callStates, depth * 2 * 3);
+        }
+        callChunks[depth] = chunk;
+        callStates[depth * 3] = pc;
+        callStates[depth * 3 + 1] = base;
+        callStates[depth * 3 + 2] = dst;
+    }
+}
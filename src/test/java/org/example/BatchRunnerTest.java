@@ -0,0 +1,47 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRunnerTest {
+
+    @Test
+    void testPanicsStayInTheirProgram() throws Exception {
+        Path wellTyped = Paths.get(BatchRunnerTest.class.getResource("../../well-typed").toURI());
+        Path badTyped = Paths.get(BatchRunnerTest.class.getResource("../../bad-typed").toURI());
+        // The good and the bad programs interleaved, so the failures run next to the other programs
+        List<Path> good = BatchRunner.files(wellTyped.toString());
+        List<Path> bad = BatchRunner.files(badTyped.toString());
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < Math.max(good.size(), bad.size()); i++) {
+            if (i < good.size()) files.add(good.get(i));
+            if (i < bad.size()) files.add(bad.get(i));
+        }
+
+        BatchReport report = new BatchRunner(Engine.VM, 4).run(files);
+        assertEquals(files.size(), report.getResults().size());
+        assertEquals(bad.size(), report.getFailures());
+        for (BatchResult result : report.getResults()) {
+            if (result.getPath().startsWith(badTyped)) {
+                assertTrue(result.isFailed(), result.getPath().toString());
+                assertEquals("", result.getOutput());
+            } else {
+                assertNull(result.getError(), result.getPath().toString());
+                String expected = Files.readString(Paths.get(result.getPath() + ".out")).trim();
+                assertEquals(expected, result.getOutput().trim(), result.getPath().toString());
+            }
+        }
+        assertTrue(report.getThroughput() > 0);
+        assertTrue(report.getPercentile(50) <= report.getPercentile(99));
+        assertEquals(report.getMax(), report.getPercentile(100));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example;
+
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.vm.BytecodeFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledFileTest {
+
+    private static String run(Path source) {
+        MemorySink out = new MemorySink();
+        Main.executeFile(source, Main.DEFAULT_MAX_DEPTH, out);
+        return out.getOutput().trim();
+    }
+
+    @Test
+    void testRebuiltWhenStaleOrCorrupted() throws Exception {
+        Path dir = Files.createTempDirectory("havefun");
+        try {
+            Path source = dir.resolve("program");
+            Files.copy(Paths.get(CompiledFileTest.class.getResource("../../well-typed/factorial").toURI()), source);
+            String expected = Files.readString(
+                    Paths.get(CompiledFileTest.class.getResource("../../well-typed/factorial.out").toURI())).trim();
+
+            // The first run writes the file, the second one loads it
+            assertEquals(expected, run(source));
+            Path compiled = CompiledFile.of(source);
+            byte[] hash = Utils.sha256(Files.readAllBytes(source));
+            assertNotNull(BytecodeFile.read(compiled, hash));
+            assertEquals(expected, run(source));
+
+            // A corrupted file fails the checksum and is written again
+            byte[] bytes = Files.readAllBytes(compiled);
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(compiled, bytes);
+            assertNull(BytecodeFile.read(compiled, hash));
+            assertEquals(expected, run(source));
+            assertNotNull(BytecodeFile.read(compiled, hash));
+
+            // A changed source doesn't match the hash of the file
+            Files.writeString(source, "out(7)", StandardCharsets.UTF_8);
+            assertEquals("7", run(source));
+            assertNull(BytecodeFile.read(compiled, hash));
+
+            // The positions of the diagnostics survive the file
+            Files.writeString(source, "fun f(n) {\n  if (n == 0) then { r = 0 } else { r = f(n - 1) + 1 };\n"
+                    + "  return r\n}\nout(f(10))", StandardCharsets.UTF_8);
+            PanicException compiledError = assertThrows(PanicException.class,
+                    () -> Main.executeFile(source, 5, new MemorySink()));
+            PanicException loadedError = assertThrows(PanicException.class,
+                    () -> Main.executeFile(source, 5, new MemorySink()));
+            assertEquals(2, loadedError.getLine());
+            assertEquals(compiledError.getReport(), loadedError.getReport());
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
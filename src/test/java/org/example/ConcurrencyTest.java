@@ -0,0 +1,72 @@
+package org.example;
+
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int ROUNDS = 4;
+    // Depth of the calls in the threads of the pool, deep-calls needs more and is run alone by MainTest
+    private static final int MAX_DEPTH = 1_000;
+
+    @Test
+    void testWellTypedFromManyThreads() throws Exception {
+        Path dir = Paths.get(ConcurrencyTest.class.getResource("../../well-typed").toURI());
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(path -> !path.toString().endsWith(".out"))
+                    .filter(path -> !path.getFileName().toString().equals("deep-calls"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        // Every program is compiled once and shared by all the executions
+        Map<Program, String> programs = new LinkedHashMap<>();
+        for (Path file : files) {
+            String expected = Files.readString(Paths.get(file + ".out")).trim();
+            programs.put(Program.compile(Files.readString(file)), expected);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS, run -> new Thread(null, run, "stress", 16 << 20));
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (Map.Entry<Program, String> entry : programs.entrySet()) {
+                    for (Engine engine : Engine.values()) {
+                        results.add(pool.submit(() -> {
+                            start.await();
+                            MemorySink out = new MemorySink();
+                            entry.getKey().run(engine, out, MAX_DEPTH);
+                            assertEquals(entry.getValue(), out.getOutput().trim(), engine.name());
+                            return null;
+                        }));
+                    }
+                }
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventsTest {
+
+    private static final String PROGRAM = "fun twice(n) { return n * 2 }\n"
+            + "out(twice(20211)); out(true)";
+
+    @Test
+    void testEvents() throws IOException {
+        Path file = Files.createTempFile("havefun", ".jfr");
+        try (Recording recording = new Recording()) {
+            // Every call is recorded without the threshold
+            recording.enable("org.example.havefun.Call").withThreshold(Duration.ZERO);
+            recording.enable("org.example.havefun.Out");
+            recording.enable("org.example.havefun.Phase");
+            recording.enable("org.example.havefun.Panic");
+            recording.start();
+            Main.execute(PROGRAM, Engine.TREE, Optimizer.all(), 1000, new MemorySink());
+            assertThrows(PanicException.class,
+                    () -> Main.execute("x = y + 20211", Engine.VM, Optimizer.all(), 1000, new MemorySink()));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<RecordedEvent> calls = named(events, "org.example.havefun.Call");
+            assertEquals(1, calls.size());
+            assertEquals("twice", calls.get(0).getString("function"));
+            assertEquals(2, calls.get(0).getInt("line"));
+
+            List<String> outs = named(events, "org.example.havefun.Out").stream()
+                    .map(event -> event.getString("value")).collect(Collectors.toList());
+            assertEquals(List.of("40422", "true"), outs);
+
+            List<String> phases = named(events, "org.example.havefun.Phase").stream()
+                    .map(event -> event.getString("phase")).collect(Collectors.toList());
+            // The bad program is rejected by the checker without running, the failed phase is reported by the panic
+            assertEquals(List.of("parse", "resolve", "check", "optimize", "run", "parse", "resolve"), phases);
+
+            List<RecordedEvent> panics = named(events, "org.example.havefun.Panic");
+            assertEquals(1, panics.size());
+            assertTrue(panics.get(0).getString("message").contains("y"), panics.get(0).getString("message"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime())).collect(Collectors.toList());
+    }
+}
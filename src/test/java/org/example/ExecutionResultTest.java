@@ -0,0 +1,70 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.opt.Pass;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutionResultTest {
+
+    // 6 nested calls of fact, 4 tail calls of count at the same depth and 10 iterations of the loop
+    private static final String PROGRAM = "fun fact(n) { if (n == 0) then { r = 1 } else { r = n * fact(n - 1) }; "
+            + "return r }\n"
+            + "fun count(n) { if (n == 0) then { r = 0 } else { r = count(n - 1) }; return r }\n"
+            + "i = 0; while (i < 10) { i = i + 1 }; out(fact(5)); out(count(3))";
+
+    @Test
+    void testCounts() {
+        Program program = Program.compile(PROGRAM, new Optimizer(EnumSet.noneOf(Pass.class)));
+        for (Engine engine : Engine.values()) {
+            MemorySink out = new MemorySink();
+            ExecutionResult result = Main.execute(program, engine, 1000, out);
+            assertEquals("120\n0\n", out.getOutput(), engine.name());
+            // The output is also captured in the result
+            assertEquals("120\n0\n", result.getOutput(), engine.name());
+            assertEquals(engine, result.getEngine());
+            assertEquals(10, result.getCalls(), engine.name());
+            assertEquals(10, result.getIterations(), engine.name());
+            assertEquals(6, result.getMaxDepth(), engine.name());
+            assertTrue(result.getRunNanos() > 0);
+        }
+    }
+
+    @Test
+    void testCompileTimes() {
+        CompileTimes times = Main.execute("out(1 + 2)", Engine.SLOT, Optimizer.all(), 1000, new MemorySink())
+                .getCompileTimes();
+        assertTrue(times.getLexNanos() > 0);
+        assertTrue(times.getParseNanos() > 0);
+        assertEquals(times.getLexNanos() + times.getParseNanos() + times.getCheckNanos() + times.getOptimizeNanos(),
+                times.getTotalNanos());
+        assertEquals(0, Program.compile("out(1)", Optimizer.all(), Parser.DIRECT).getCompileTimes().getLexNanos());
+    }
+
+    @Test
+    void testReportsIgnoreDefaultLocale() {
+        Locale locale = Locale.getDefault();
+        try {
+            // German writes the decimal separator as a comma
+            Locale.setDefault(Locale.GERMANY);
+            String result = Main.execute("out(1 + 2)", Engine.VM, Optimizer.all(), 1000, new MemorySink()).toString();
+            assertFalse(result.matches("(?s).*\\d,\\d.*"), result);
+            ProgramCache cache = new ProgramCache(1 << 20);
+            cache.get("out(1)");
+            String stats = cache.getStats().toString();
+            assertFalse(stats.matches("(?s).*\\d,\\d.*"), stats);
+            String report = new BatchReport(List.of(), 1_500_000_000L).toString();
+            assertTrue(report.contains("in 1.500 s"), report);
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
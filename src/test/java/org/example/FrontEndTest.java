@@ -0,0 +1,26 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FrontEndTest {
+
+    @Test
+    void testSameTreeAsLL() {
+        String program = new ProgramGenerator(1).generate(20, 6, 3);
+        ParseResult result = FrontEnd.parse(program);
+        assertEquals(FrontEnd.Stage.SLL, result.getStage());
+        assertEquals(FrontEnd.parseLL(program).toStringTree(), result.getTree().toStringTree());
+        // The generated programs are well-typed
+        Program.compile(program);
+    }
+
+    @Test
+    void testErrorsFallBackToLL() {
+        String program = "x = 1;; out(x)";
+        ParseResult result = FrontEnd.parse(program);
+        assertEquals(FrontEnd.Stage.LL, result.getStage());
+        assertEquals(FrontEnd.parseLL(program).toStringTree(), result.getTree().toStringTree());
+    }
+}
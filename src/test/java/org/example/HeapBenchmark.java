@@ -0,0 +1,47 @@
+package org.example;
+
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.parser.IrParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Compare the peak heap used to build the IR of a large generated source file: read in a string and parsed with
+// ANTLR, read in a string and parsed directly, and lexed directly from the file mapped in memory. Run with
+// gradle heapBenchmark.
+class HeapBenchmark {
+
+    private static final int FUNCTIONS = 20_000;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("havefun", ".txt");
+        try {
+            Files.writeString(file, new ProgramGenerator(42).generate(FUNCTIONS, 8, 4));
+            System.out.printf("%d MiB source%n", Files.size(file) >> 20);
+            report("string + ANTLR", () -> Resolver.resolve(Main.parse(Files.readString(file))));
+            report("string + direct", () -> IrParser.parse(Files.readString(file)));
+            report("mapped + direct", () -> IrParser.parse(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private interface Parse {
+        Object run() throws IOException;
+    }
+
+    // Peak heap reached while parsing, above the heap used before starting. The result is kept alive until the
+    // peak is read, so the IR is counted too.
+    private static void report(String name, Parse parse) throws IOException {
+        long before = HeapMeter.reset();
+        Object result = parse.run();
+        long peak = HeapMeter.peak();
+        System.gc();
+        long retained = HeapMeter.used() - before;
+        System.out.printf("%-16s peak %6d MiB  retained %6d MiB%n", name, (peak - before) >> 20, retained >> 20);
+        if (result == null) {
+            throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.example;
+
+import org.example.interpreter.ir.Com;
+import org.example.interpreter.ir.Exp;
+import org.example.interpreter.ir.IrFunction;
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.IrVisitor;
+import org.example.interpreter.ir.Node;
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.parser.IrParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IrParserTest {
+
+    // Text of the IR with the positions of every node, equal for equal programs
+    private static class Dump implements IrVisitor<String> {
+
+        private static String dump(IrProgram program) {
+            Dump dump = new Dump();
+            StringBuilder out = new StringBuilder();
+            for (IrFunction fun : program.getFunctions()) {
+                out.append("fun ").append(fun.getName()).append(fun.getParameters()).append(fun.getSlots())
+                        .append('@').append(fun.getLine()).append(':').append(fun.getColumn())
+                        .append(fun.getBody() != null ? fun.getBody().accept(dump) : "-")
+                        .append(" return ").append(fun.getRet().accept(dump)).append('\n');
+            }
+            return out.append(program.getSlots()).append(program.getMain().accept(dump)).toString();
+        }
+
+        private static String at(Node node) {
+            return "@" + node.getLine() + ":" + node.getColumn();
+        }
+
+        @Override
+        public String visitNat(Exp.Nat exp) {
+            return exp.getValue() + at(exp);
+        }
+
+        @Override
+        public String visitBool(Exp.Bool exp) {
+            return exp.getValue() + at(exp);
+        }
+
+        @Override
+        public String visitVar(Exp.Var exp) {
+            return exp.getName() + "#" + exp.getSlot() + at(exp);
+        }
+
+        @Override
+        public String visitBinary(Exp.Binary exp) {
+            return "(" + exp.getLeft().accept(this) + " " + exp.getOp() + " " + exp.getRight().accept(this) + ")"
+                    + at(exp);
+        }
+
+        @Override
+        public String visitNot(Exp.Not exp) {
+            return "!" + exp.getExp().accept(this) + at(exp);
+        }
+
+        @Override
+        public String visitCall(Exp.Call exp) {
+            StringBuilder out = new StringBuilder(exp.getName()).append('#').append(exp.getFunction()).append('(');
+            for (Exp arg : exp.getArgs()) {
+                out.append(arg.accept(this)).append(',');
+            }
+            return out.append(')').append(at(exp)).toString();
+        }
+
+        @Override
+        public String visitSkip(Com.Skip com) {
+            return "skip" + at(com);
+        }
+
+        @Override
+        public String visitAssign(Com.Assign com) {
+            return com.getName() + "#" + com.getSlot() + " = " + com.getExp().accept(this) + at(com);
+        }
+
+        @Override
+        public String visitSeq(Com.Seq com) {
+            StringBuilder out = new StringBuilder("{");
+            for (Com child : com.getCommands()) {
+                out.append(child.accept(this)).append("; ");
+            }
+            return out.append('}').append(at(com)).toString();
+        }
+
+        @Override
+        public String visitIf(Com.If com) {
+            return "if " + com.getGuard().accept(this) + " then " + com.getThen().accept(this) + " else "
+                    + com.getOtherwise().accept(this) + at(com);
+        }
+
+        @Override
+        public String visitWhile(Com.While com) {
+            return "while " + com.getGuard().accept(this) + " do " + com.getBody().accept(this) + at(com);
+        }
+
+        @Override
+        public String visitOut(Com.Out com) {
+            return "out " + com.getExp().accept(this) + at(com);
+        }
+    }
+
+    // The dump of the program, or the report of the panic
+    private static String resolve(Supplier<IrProgram> parse) {
+        try {
+            return Dump.dump(parse.get());
+        } catch (PanicException e) {
+            return e.getReport();
+        }
+    }
+
+    private static void assertSameIr(String source) {
+        assertEquals(resolve(() -> Resolver.resolve(Main.parse(source))), resolve(() -> IrParser.parse(source)),
+                source);
+    }
+
+    @Test
+    void testResources() throws Exception {
+        for (String dir : List.of("well-typed", "bad-typed")) {
+            Path path = Paths.get(IrParserTest.class.getResource("../../" + dir).toURI());
+            for (Path file : BatchRunner.files(path.toString())) {
+                assertSameIr(Files.readString(file));
+            }
+        }
+    }
+
+    @Test
+    void testMappedFiles() throws Exception {
+        for (String dir : List.of("well-typed", "bad-typed")) {
+            Path path = Paths.get(IrParserTest.class.getResource("../../" + dir).toURI());
+            for (Path file : BatchRunner.files(path.toString())) {
+                String source = Files.readString(file);
+                assertEquals(resolve(() -> IrParser.parse(source)), resolve(() -> {
+                    try {
+                        return IrParser.parse(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), file.toString());
+            }
+        }
+    }
+
+    // The programs compiled from their mapped files run on every engine, the tree one reads the file again
+    @Test
+    void testCompileFiles() throws Exception {
+        Path dir = Paths.get(IrParserTest.class.getResource("../../well-typed").toURI());
+        for (Path file : BatchRunner.files(dir.toString())) {
+            String expected = Files.readString(file.resolveSibling(file.getFileName() + ".out")).trim();
+            Program program = Program.compile(file, Optimizer.all());
+            for (Engine engine : Engine.values()) {
+                MemorySink out = new MemorySink();
+                Main.execute(program, engine, Main.DEFAULT_MAX_DEPTH, out);
+                assertEquals(expected, out.getOutput().trim(), file.getFileName() + " " + engine.name());
+            }
+        }
+    }
+
+    @Test
+    void testGeneratedPrograms() {
+        for (int seed = 0; seed < 20; seed++) {
+            assertSameIr(new ProgramGenerator(seed).generate(10, 5, 3));
+        }
+    }
+
+    @Test
+    void testRandomPrograms() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            assertSameIr(new RandomProgram(random).program());
+        }
+    }
+
+    // Random programs using every construct of the grammar, well formed but often not well-typed
+    private static class RandomProgram {
+
+        private static final String[] BINARY = {"^", "*", "/", "mod", "+", "-", "<", "<=", ">=", ">", "==", "!=",
+                "&", "|"};
+        private static final String[] NAMES = {"a", "b", "c", "f", "g"};
+
+        private final Random random;
+        private final StringBuilder out = new StringBuilder();
+
+        RandomProgram(Random random) {
+            this.random = random;
+        }
+
+        String program() {
+            int functions = random.nextInt(3);
+            for (int i = 0; i < functions; i++) {
+                // Names can repeat, so some programs define a function twice
+                out.append("fun ").append(NAMES[3 + random.nextInt(2)]).append("(");
+                int parameters = random.nextInt(3);
+                for (int j = 0; j < parameters; j++) {
+                    out.append(j > 0 ? ", " : "").append(NAMES[random.nextInt(3)]);
+                }
+                out.append(") {\n");
+                if (random.nextBoolean()) {
+                    com(2);
+                    out.append(";\n");
+                }
+                out.append("  return ");
+                exp(3);
+                out.append("\n}\n");
+            }
+            com(3);
+            return out.toString();
+        }
+
+        private void com(int depth) {
+            switch (depth == 0 ? random.nextInt(3) : random.nextInt(6)) {
+                case 0 -> {
+                    out.append(NAMES[random.nextInt(3)]).append(" = ");
+                    exp(3);
+                }
+                case 1 -> out.append("skip");
+                case 2 -> {
+                    out.append("out(");
+                    exp(3);
+                    out.append(")");
+                }
+                case 3 -> {
+                    out.append("if (");
+                    exp(2);
+                    out.append(") then {\n");
+                    com(depth - 1);
+                    out.append("\n} else { ");
+                    com(depth - 1);
+                    out.append(" }");
+                }
+                case 4 -> {
+                    out.append("while (");
+                    exp(2);
+                    out.append(")  {\t");
+                    com(depth - 1);
+                    out.append("}");
+                }
+                default -> {
+                    com(depth - 1);
+                    out.append(";\n ");
+                    com(depth - 1);
+                }
+            }
+        }
+
+        private void exp(int depth) {
+            switch (depth == 0 ? random.nextInt(3) : random.nextInt(8)) {
+                case 0 -> out.append(random.nextInt(3) == 0 ? "0" : String.valueOf(random.nextInt(1000)));
+                case 1 -> out.append(random.nextBoolean() ? "true" : "false");
+                case 2 -> out.append(NAMES[random.nextInt(3)]);
+                case 3 -> {
+                    out.append("(");
+                    exp(depth - 1);
+                    out.append(")");
+                }
+                case 4 -> {
+                    out.append("!");
+                    exp(depth - 1);
+                }
+                case 5 -> {
+                    out.append(NAMES[3 + random.nextInt(2)]).append("(");
+                    int args = random.nextInt(3);
+                    for (int i = 0; i < args; i++) {
+                        out.append(i > 0 ? "," : "");
+                        exp(depth - 1);
+                    }
+                    out.append(")");
+                }
+                default -> {
+                    exp(depth - 1);
+                    out.append(' ').append(BINARY[random.nextInt(BINARY.length)]).append(' ');
+                    exp(depth - 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.jit.JitCompiler;
+import org.example.interpreter.jit.JitProgram;
+import org.example.interpreter.jit.JitRuntime;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class JitCompilerTest {
+
+    private static String run(Program program) {
+        JitProgram compiled = JitCompiler.compile(program.getIr(), program.getTyping());
+        assertNotNull(compiled);
+        MemorySink out = new MemorySink();
+        compiled.run(new JitRuntime(out, new Meter()));
+        return out.getOutput();
+    }
+
+    private static Path resource(String name) throws URISyntaxException {
+        return Paths.get(JitCompilerTest.class.getResource("../../well-typed/" + name).toURI());
+    }
+
+    @Test
+    void testMutualRecursion() throws Exception {
+        // The tail calls between iseven and isodd are jumps in a single method, so they don't grow the Java stack
+        assertEquals("false\n", run(Program.compile(resource("mutual-rec"), Optimizer.all())));
+        assertEquals("false\nfalse\n", run(Program.compile(resource("deep-mutual"), Optimizer.all())));
+    }
+
+    @Test
+    void testCycleOfDifferentFunctions() {
+        // Functions of a cycle with different parameters and locals, called also from outside the cycle
+        String program = "fun a(n, m) { if (n == 0) then { r = m } else { r = b(n - 1) }; return r }\n"
+                + "fun b(n) { k = n * 2; if (k > 1000000) then { r = 0 } else { r = c(n, k < 10, 3) }; return r }\n"
+                + "fun c(n, small, x) { if (small) then { y = x } else { y = 1 }; r = a(n, y); return r }\n"
+                + "out(a(100000, 7)); out(b(3)); out(c(4, false, 9)); out(a(0, 7))";
+        assertEquals("3\n3\n3\n7\n", run(Program.compile(program, Optimizer.all())));
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Scaling of the whole pipeline with the size of generated programs: every dimension of the size grows alone from
+// a base size, and for each size the time of every compilation phase and of the execution, the peak heap and the
+// collections are recorded. The phase times are the ones recorded by the compilation, so the source is parsed once.
+// The exponent is the slope of the time between two sizes on a log-log scale, of lexing and parsing together for
+// the parse one: 1 is linear, higher is superlinear. Run with gradle macroBenchmark, the table is written in CSV and
+// JSON to build/reports/macro.
+class MacroBenchmark {
+
+    private static final ProgramSize BASE = new ProgramSize(25, 8, 50, 250, 4);
+    private static final String[] DIMENSIONS = {"functions", "statements", "trips", "recursion", "nesting"};
+    private static final int[] FACTORS = {1, 2, 4, 8, 16};
+    private static final int WARMUP = 5;
+    private static final int RUNS = 3;
+
+    // Measures of one size, the times are the best of the runs
+    private static class Row {
+        private String dimension;
+        private int value;
+        private int chars;
+        private long lex;
+        private long parse;
+        private long check;
+        private long optimize;
+        private long execute;
+        private long peak;
+        private long collections;
+        private long collectionTime;
+        private double parseExponent = Double.NaN;
+        private double executeExponent = Double.NaN;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Engine engine = args.length > 0 ? Engine.valueOf(args[0].toUpperCase()) : Engine.TREE;
+        Path reports = Paths.get(args.length > 1 ? args[1] : "build/reports/macro");
+
+        String base = new ProgramGenerator(42).generate(BASE);
+        for (int i = 0; i < WARMUP; i++) {
+            measure(engine, base);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        System.out.printf("%-10s %6s %9s %8s %8s %8s %8s %10s %7s %8s %5s %6s %8s%n", "dimension", "value",
+                "chars", "lex ms", "parse ms", "check ms", "opt ms", "exec ms", "x parse", "x exec", "gc", "gc ms",
+                "peak MiB");
+        for (String dimension : DIMENSIONS) {
+            Row previous = null;
+            for (int factor : FACTORS) {
+                ProgramSize size = BASE.scale(dimension, factor);
+                Row row = measure(engine, new ProgramGenerator(42).generate(size));
+                row.dimension = dimension;
+                row.value = size.get(dimension);
+                if (previous != null) {
+                    double ratio = Math.log((double) row.value / previous.value);
+                    row.parseExponent = Math.log((double) (row.lex + row.parse) / (previous.lex + previous.parse))
+                            / ratio;
+                    row.executeExponent = Math.log((double) row.execute / previous.execute) / ratio;
+                }
+                System.out.printf(Locale.ROOT,
+                        "%-10s %6d %9d %8.2f %8.2f %8.2f %8.2f %10.2f %7.2f %8.2f %5d %6d %8d%n", dimension,
+                        row.value, row.chars, row.lex / 1e6, row.parse / 1e6, row.check / 1e6, row.optimize / 1e6,
+                        row.execute / 1e6, row.parseExponent, row.executeExponent, row.collections,
+                        row.collectionTime, row.peak >> 20);
+                rows.add(row);
+                previous = row;
+            }
+        }
+
+        Files.createDirectories(reports);
+        Files.writeString(reports.resolve("scaling.csv"), csv(rows));
+        Files.writeString(reports.resolve("scaling.json"), json(engine, rows));
+        System.out.println("Written " + reports.resolve("scaling.csv") + " and " + reports.resolve("scaling.json"));
+    }
+
+    private static Row measure(Engine engine, String source) {
+        Row row = new Row();
+        row.chars = source.length();
+        row.lex = Long.MAX_VALUE;
+        row.parse = Long.MAX_VALUE;
+        row.check = Long.MAX_VALUE;
+        row.optimize = Long.MAX_VALUE;
+        row.execute = Long.MAX_VALUE;
+        // The peak is measured on the first run only, the others start with the heap left by the previous one.
+        // The collections are counted after the one of the reset.
+        long before = HeapMeter.reset();
+        long collections = HeapMeter.collections();
+        long collectionTime = HeapMeter.collectionTime();
+        for (int i = 0; i < RUNS; i++) {
+            Program program = Program.compile(source, Optimizer.all());
+            long compiled = System.nanoTime();
+            Main.execute(program, engine, Main.DEFAULT_MAX_DEPTH, new MemorySink());
+            long executed = System.nanoTime();
+            if (i == 0) {
+                row.peak = HeapMeter.peak() - before;
+            }
+            CompileTimes times = program.getCompileTimes();
+            row.lex = Math.min(row.lex, times.getLexNanos());
+            row.parse = Math.min(row.parse, times.getParseNanos());
+            row.check = Math.min(row.check, times.getCheckNanos());
+            row.optimize = Math.min(row.optimize, times.getOptimizeNanos());
+            row.execute = Math.min(row.execute, executed - compiled);
+        }
+        row.collections = HeapMeter.collections() - collections;
+        row.collectionTime = HeapMeter.collectionTime() - collectionTime;
+        return row;
+    }
+
+    private static String csv(List<Row> rows) {
+        StringBuilder out = new StringBuilder("dimension,value,chars,lex_ns,parse_ns,check_ns,optimize_ns,"
+                + "execute_ns,parse_exponent,execute_exponent,peak_bytes,collections,collection_ms\n");
+        for (Row row : rows) {
+            out.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%s,%s,%d,%d,%d%n", row.dimension,
+                    row.value, row.chars, row.lex, row.parse, row.check, row.optimize, row.execute,
+                    number(row.parseExponent), number(row.executeExponent), row.peak, row.collections,
+                    row.collectionTime));
+        }
+        return out.toString();
+    }
+
+    private static String json(Engine engine, List<Row> rows) {
+        StringBuilder out = new StringBuilder("{\"engine\":\"").append(engine.name()).append("\",\"rows\":[");
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            out.append(i > 0 ? ",\n" : "\n").append(String.format(Locale.ROOT,
+                    "{\"dimension\":\"%s\",\"value\":%d,\"chars\":%d,\"lexNs\":%d,\"parseNs\":%d,"
+                            + "\"checkNs\":%d,\"optimizeNs\":%d,\"executeNs\":%d,\"parseExponent\":%s,"
+                            + "\"executeExponent\":%s,\"peakBytes\":%d,"
+                            + "\"collections\":%d,\"collectionMs\":%d}",
+                    row.dimension, row.value, row.chars, row.lex, row.parse, row.check, row.optimize, row.execute,
+                    Double.isNaN(row.parseExponent) ? "null" : number(row.parseExponent),
+                    Double.isNaN(row.executeExponent) ? "null" : number(row.executeExponent),
+                    row.peak, row.collections, row.collectionTime));
+        }
+        return out.append("\n]}\n").toString();
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
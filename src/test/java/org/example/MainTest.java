@@ -1,5 +1,6 @@
 package org.example;
 
+import org.example.interpreter.opt.Optimizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -8,13 +9,19 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class MainTest {
 
     void testBadTyped(String name) throws URISyntaxException, IOException {
         String str = Files.readString(Paths.get(MainTest.class.getResource("../../bad-typed/" + name).toURI()));
-        assertThrows(RuntimeException.class, () -> Main.execute(str));
+        for (Engine engine : Engine.values()) {
+            Files.deleteIfExists(Paths.get("out.txt"));
+            assertThrows(RuntimeException.class, () -> Main.execute(str, engine));
+            // The program is rejected before the execution starts
+            assertFalse(Files.exists(Paths.get("out.txt")), engine.name());
+        }
     }
 
     @Test
@@ -47,6 +54,18 @@ class MainTest {
             testBadTyped(name);
     }
 
+    @Test
+    void testMixedTypesBadTyped() throws URISyntaxException, IOException {
+            String name = "mixed-types";
+            testBadTyped(name);
+    }
+
+    @Test
+    void testMaybeUnassignedBadTyped() throws URISyntaxException, IOException {
+            String name = "maybe-unassigned";
+            testBadTyped(name);
+    }
+
     @Test
     void testWrongArgsBadTyped() throws URISyntaxException, IOException {
             String name = "wrong-args";
@@ -59,9 +78,12 @@ class MainTest {
         String expected =
                 Files.readString(Paths.get(MainTest.class.getResource("../../well-typed/" + name + ".out")
                         .toURI())).trim();
-        Main.execute(str);
-        String out = Files.readString(Paths.get("out.txt")).trim();
-        assertEquals(expected, out);
+        // Every engine must produce the same output of the reference one
+        for (Engine engine : Engine.values()) {
+            Main.execute(str, engine);
+            String out = Files.readString(Paths.get("out.txt")).trim();
+            assertEquals(expected, out, engine.name());
+        }
     }
 
     @Test
@@ -70,6 +92,42 @@ class MainTest {
         testWellTyped(name);
     }
 
+    @Test
+    void testFoldWellTyped() throws URISyntaxException, IOException {
+        String name = "fold";
+        testWellTyped(name);
+    }
+
+    @Test
+    void testDeepTailWellTyped() throws URISyntaxException, IOException {
+        String name = "deep-tail";
+        testWellTyped(name);
+    }
+
+    @Test
+    void testDeepMutualWellTyped() throws URISyntaxException, IOException {
+        String name = "deep-mutual";
+        testWellTyped(name);
+    }
+
+    @Test
+    void testDeepCallsWellTyped() throws URISyntaxException, IOException {
+        String name = "deep-calls";
+        testWellTyped(name);
+    }
+
+    @Test
+    void testStackOverflow() throws URISyntaxException, IOException {
+        String str = Files.readString(Paths.get(MainTest.class.getResource("../../well-typed/deep-calls").toURI()));
+        // Every engine panics at the same call past the limit, also the ones recursing on the Java stack
+        for (Engine engine : Engine.values()) {
+            Main.execute(str, engine, Optimizer.all(), 50_001);
+            PanicException e = assertThrows(PanicException.class,
+                    () -> Main.execute(str, engine, Optimizer.all(), 50_000), engine.name());
+            assertEquals("Stack overflow, more than 50000 nested calls", e.getMessage(), engine.name());
+        }
+    }
+
     @Test
     void testFactorialWellTyped() throws URISyntaxException, IOException {
         String name = "factorial";
@@ -82,6 +140,12 @@ class MainTest {
         testWellTyped(name);
     }
 
+    @Test
+    void testLoopWellTyped() throws URISyntaxException, IOException {
+        String name = "loop";
+        testWellTyped(name);
+    }
+
     @Test
     void testScope1WellTyped() throws URISyntaxException, IOException {
         String name = "scope1";
@@ -0,0 +1,58 @@
+package org.example;
+
+import org.example.interpreter.MemoStats;
+import org.example.interpreter.Memoizer;
+import org.example.interpreter.Meter;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoizationTest {
+
+    private static final String FIB = "fun fib(n) {\n"
+            + "  if (n < 2) then { ret = n } else { ret = fib(n - 1) + fib(n - 2) };\n"
+            + "  return ret\n"
+            + "}\n"
+            + "fun show(n) { out(n); return fib(n) }\n"
+            + "x = show(40); out(x)";
+
+    private static String run(String program, Memoizer memoizer) {
+        MemorySink out = new MemorySink();
+        Main.execute(program, Engine.TREE, Optimizer.all(), Main.DEFAULT_MAX_DEPTH, out, new Meter(), memoizer);
+        return out.getOutput();
+    }
+
+    @Test
+    void testFibonacciIsLinear() {
+        Memoizer memoizer = new Memoizer(100);
+        assertEquals("40\n102334155\n", run(FIB, memoizer));
+
+        // Every argument is computed once, every other call finds it: 2 calls for each n >= 2 and the first one
+        MemoStats stats = memoizer.getStats().get("fib");
+        assertEquals(41, stats.getMisses());
+        assertEquals(38, stats.getHits());
+        assertEquals(0, stats.getEvictions());
+        // A function with an out is never memoized
+        assertFalse(memoizer.isPure("show"));
+        assertTrue(memoizer.isPure("fib"));
+    }
+
+    @Test
+    void testEviction() {
+        Memoizer memoizer = new Memoizer(2);
+        assertEquals("25\n75025\n", run(FIB.replace("40", "25"), memoizer));
+        assertTrue(memoizer.getStats().get("fib").getEvictions() > 0);
+    }
+
+    @Test
+    void testOnlyTree() {
+        Program program = Program.compile(FIB);
+        assertThrows(IllegalArgumentException.class,
+                () -> program.run(Engine.VM, new MemorySink(), 1000, new Meter(), new Memoizer(2)));
+    }
+}
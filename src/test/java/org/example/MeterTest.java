@@ -0,0 +1,72 @@
+package org.example;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeterTest {
+
+    private static final String LOOP = "x = 0;\nwhile (true) { x = x + 1 }";
+    private static final String RECURSION = "fun f(n) { r = f(n + 1); return r }\nout(f(0))";
+
+    @Test
+    void testFuel() {
+        for (Engine engine : Engine.values()) {
+            PanicException e = assertThrows(PanicException.class,
+                    () -> Program.compile(LOOP).run(engine, new MemorySink(), 1000, new Meter(5000, Meter.UNLIMITED)));
+            assertEquals("Out of fuel, more than 5000 calls and loop iterations\n@2:0", e.getReport(), engine.name());
+            e = assertThrows(PanicException.class, () -> Program.compile(RECURSION)
+                    .run(engine, new MemorySink(), 1000, new Meter(5000, Meter.UNLIMITED)));
+            assertEquals("Out of fuel, more than 5000 calls and loop iterations\n@1:15", e.getReport(), engine.name());
+        }
+    }
+
+    @Test
+    void testExactFuel() {
+        // 1 call and 10 iterations
+        String program = "fun f(n) { i = 0; while (i < n) { i = i + 1 }; return i }\nout(f(10))";
+        for (Engine engine : Engine.values()) {
+            MemorySink out = new MemorySink();
+            Program.compile(program).run(engine, out, 1000, new Meter(11, Meter.UNLIMITED));
+            assertEquals("10\n", out.getOutput());
+            assertThrows(PanicException.class,
+                    () -> Program.compile(program).run(engine, new MemorySink(), 1000, new Meter(10, Meter.UNLIMITED)));
+        }
+    }
+
+    @Test
+    void testDeadline() {
+        for (Engine engine : Engine.values()) {
+            long start = System.nanoTime();
+            PanicException e = assertThrows(PanicException.class, () -> Program.compile(RECURSION)
+                    .run(engine, new MemorySink(), 1000, new Meter(Meter.UNLIMITED, 20_000_000)));
+            assertEquals("Deadline exceeded, running for more than 20 ms", e.getMessage(), engine.name());
+            assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        }
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        for (Engine engine : Engine.values()) {
+            Meter meter = new Meter();
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                meter.cancel();
+            });
+            canceller.start();
+            PanicException e = assertThrows(PanicException.class, () -> Main.execute(LOOP, engine,
+                    Optimizer.all(), 1000, new MemorySink(), meter));
+            canceller.join();
+            assertEquals("Execution cancelled\n@2:0", e.getReport(), engine.name());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example;
+
+import org.example.interpreter.Meter;
+import org.example.interpreter.NodeInterpreter;
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.parser.IrParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NodeInterpreterTest {
+
+    // Run the tree built without typing, so every node starts uninitialized and rewrites itself on the values it sees
+    private static String run(String program) {
+        MemorySink out = new MemorySink();
+        new NodeInterpreter(IrParser.parse(program), null, out, new Meter()).run();
+        return out.getOutput();
+    }
+
+    @Test
+    void testVariableChangesType() {
+        // The read of x and the assignment to y specialize to naturals and go generic when x becomes a boolean
+        assertEquals("0\n0\ntrue\ntrue\n2\n2\n", run("i = 0; while (i < 3) {\n"
+                + "  if (i == 1) then { x = true } else { x = i };\n"
+                + "  y = x; out(x); out(y); i = i + 1\n"
+                + "}"));
+    }
+
+    @Test
+    void testEqualityChangesType() {
+        assertEquals("true\nfalse\ntrue\n", run("i = 0; while (i < 3) {\n"
+                + "  if (i == 1) then { x = true; y = false } else { x = i; y = i };\n"
+                + "  out(x == y); i = i + 1\n"
+                + "}"));
+    }
+
+    @Test
+    void testParameterChangesType() {
+        // The argument written in the callee frame and the return expression see a natural, then a boolean
+        assertEquals("0\ntrue\n2\n", run("fun id(a) { skip; return a }\n"
+                + "i = 0; while (i < 3) {\n"
+                + "  if (i == 1) then { x = true } else { x = i };\n"
+                + "  out(id(x)); i = i + 1\n"
+                + "}"));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example;
+
+import org.example.interpreter.ir.IrProgram;
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.opt.NodeCounter;
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.opt.Pass;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OptimizerTest {
+
+    private static final String PROGRAM = "x = 2 ^ 3 * 1; if (x > 2 + 2) then { out(x * 4) } else { out(0) }";
+
+    @Test
+    void testAllPasses() {
+        IrProgram program = Resolver.resolve(Main.parse(PROGRAM));
+        Optimizer optimizer = Optimizer.all();
+        IrProgram optimized = optimizer.optimize(program);
+        // 2 ^ 3 * 1 and 2 + 2 fold to a literal
+        assertEquals(6, optimizer.getRemoved(Pass.CONSTANT_FOLDING));
+        assertEquals(0, optimizer.getRemoved(Pass.DEAD_BRANCHES));
+        assertEquals(0, optimizer.getRemoved(Pass.STRENGTH_REDUCTION));
+        assertEquals(NodeCounter.count(program) - 6, NodeCounter.count(optimized));
+    }
+
+    @Test
+    void testSinglePass() {
+        IrProgram program = Resolver.resolve(Main.parse("if (1 < 2) then { out(1) } else { out(2) }"));
+        Optimizer optimizer = new Optimizer(EnumSet.of(Pass.DEAD_BRANCHES));
+        optimizer.optimize(program);
+        // Without folding the guard is not a literal
+        assertEquals(0, optimizer.getRemoved(Pass.DEAD_BRANCHES));
+        assertEquals(1, optimizer.getRemoved().size());
+
+        optimizer = new Optimizer(EnumSet.of(Pass.CONSTANT_FOLDING, Pass.DEAD_BRANCHES));
+        optimizer.optimize(program);
+        assertEquals(2, optimizer.getRemoved(Pass.CONSTANT_FOLDING));
+        // The if, its guard and the else branch
+        assertEquals(4, optimizer.getRemoved(Pass.DEAD_BRANCHES));
+    }
+
+    @Test
+    void testRemovedOfCachedPrograms() {
+        Optimizer optimizer = Optimizer.all();
+        Program program = Program.compile(PROGRAM, optimizer);
+        assertEquals(6, program.getRemoved(Pass.CONSTANT_FOLDING));
+        // The counts are kept by the program, the optimizer given to the compilation is not changed
+        assertEquals(0, optimizer.getRemoved().size());
+
+        String source = PROGRAM.replace("2 + 2", "3 + 1");
+        for (int i = 0; i < 2; i++) {
+            // The second run takes the program from the cache and reports the counts of its compilation
+            ExecutionResult result = Main.execute(source, Engine.VM, optimizer, Main.DEFAULT_MAX_DEPTH,
+                    new MemorySink());
+            assertEquals(Map.of(Pass.CONSTANT_FOLDING, 6, Pass.DEAD_BRANCHES, 0, Pass.STRENGTH_REDUCTION, 0),
+                    result.getRemoved());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.output.AsyncSink;
+import org.example.interpreter.output.FileSink;
+import org.example.interpreter.output.FlushPolicy;
+import org.example.interpreter.output.MemorySink;
+import org.example.interpreter.output.OutputSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutputSinkTest {
+
+    @Test
+    void testEncoding() {
+        MemorySink sink = new MemorySink();
+        for (int value : new int[]{0, 7, -7, 10, 1000000, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            sink.writeInt(value);
+        }
+        sink.writeBool(true);
+        sink.writeBool(false);
+        assertEquals(List.of("0", "7", "-7", "10", "1000000", "2147483647", "-2147483648", "true", "false"),
+                sink.getLines());
+    }
+
+    @Test
+    void testEnginesWriteToSink() {
+        String program = "x = 0; while (x < 1000) { out(x * x); x = x + 1 }; out(x == 1000)";
+        MemorySink expected = new MemorySink();
+        Main.execute(program, Engine.TREE, Optimizer.all(), Main.DEFAULT_MAX_DEPTH, expected);
+        assertEquals(1001, expected.getLines().size());
+        for (Engine engine : Engine.values()) {
+            MemorySink sink = new MemorySink();
+            Main.execute(program, engine, Optimizer.all(), Main.DEFAULT_MAX_DEPTH, sink);
+            assertEquals(expected.getOutput(), sink.getOutput(), engine.name());
+        }
+    }
+
+    @Test
+    void testFilePolicy() throws IOException {
+        Path path = Files.createTempFile("havefun", ".txt");
+        try {
+            // Nothing reaches the file before the buffer holds the given size
+            FileSink sink = new FileSink(path, FlushPolicy.ofSize(7));
+            sink.writeInt(12);
+            sink.writeInt(34);
+            assertEquals("", Files.readString(path));
+            sink.writeInt(56);
+            assertEquals("12\n34\n56\n", Files.readString(path));
+            sink.writeBool(true);
+            sink.close();
+            assertEquals("12\n34\n56\ntrue\n", Files.readString(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testAsyncKeepsOrder() {
+        MemorySink target = new MemorySink();
+        // A small ring, so the program waits for the writer thread
+        OutputSink sink = new AsyncSink(target, 4);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            sink.writeInt(i - 5000);
+            expected.append(i - 5000).append('\n');
+        }
+        sink.flush();
+        assertEquals(expected.toString(), target.getOutput());
+        sink.writeBool(false);
+        sink.close();
+        assertEquals("false", target.getLines().get(10_000));
+    }
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import org.example.interpreter.ir.Resolver;
+import org.example.interpreter.parser.IrParser;
+
+// Compare the LL parser with the two stage SLL then LL one on generated programs, and both with the hand written
+// parser building the IR directly. Run with gradle parseBenchmark.
+class ParseBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        ProgramGenerator generator = new ProgramGenerator(42);
+        String[] names = {"many functions", "deep expressions"};
+        String[] programs = {generator.generate(2000, 8, 4), generator.generate(50, 200, 3)};
+        for (int i = 0; i < programs.length; i++) {
+            String program = programs[i];
+            FrontEnd.Stage stage = FrontEnd.parse(program).getStage();
+            long ll = measure(() -> FrontEnd.parseLL(program));
+            long twoStage = measure(() -> FrontEnd.parse(program));
+            System.out.printf("%-16s %8d chars  LL %8.2f ms  SLL->LL %8.2f ms (%s)  speedup %.2fx%n",
+                    names[i], program.length(), ll / 1e6, twoStage / 1e6, stage, (double) ll / twoStage);
+            long resolved = measure(() -> Resolver.resolve(FrontEnd.parse(program).getTree()));
+            long direct = measure(() -> IrParser.parse(program));
+            System.out.printf("%-16s %8s        IR from tree %8.2f ms  direct %8.2f ms  speedup %.2fx%n",
+                    "", "", resolved / 1e6, direct / 1e6, (double) resolved / direct);
+        }
+    }
+
+    // Best time of the runs after the warmup
+    private static long measure(Runnable parse) {
+        for (int i = 0; i < WARMUP; i++) {
+            parse.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            parse.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import org.example.interpreter.Profile;
+import org.example.interpreter.ProfileEntry;
+import org.example.interpreter.Profiler;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProfilerTest {
+
+    private static final String PROGRAM = "fun factorial(n) {\n"
+            + "  if (n == 0) then { ret = 1 } else { ret = factorial(n - 1) * n };\n"
+            + "  return ret\n"
+            + "}\n"
+            + "fun loop(n) { i = 0; while (i < n) { i = i + 1 }; ret = last(i); return ret }\n"
+            + "fun last(n) { return n }\n"
+            + "out(factorial(5)); out(loop(10))";
+
+    @Test
+    void testCounts() {
+        MemorySink out = new MemorySink();
+        Profile profile = Main.profile(PROGRAM, 1000, out);
+        // The profiled run gives the same output
+        assertEquals("120\n10", out.getOutput().trim());
+
+        ProfileEntry factorial = profile.getFunction("factorial");
+        assertNotNull(factorial);
+        assertEquals(6, factorial.getCount());
+        assertEquals(1, factorial.getLine());
+        // The recursion is counted once in the inclusive time, every call in the exclusive one
+        assertTrue(factorial.getInclusiveNanos() >= factorial.getExclusiveNanos());
+
+        ProfileEntry condition = profile.getSite(2, 2);
+        assertNotNull(condition);
+        assertEquals(Profiler.Kind.IF, condition.getKind());
+        assertEquals(6, condition.getCount());
+        // The then branch is taken only by the last call
+        assertEquals(1, condition.getIterations());
+
+        ProfileEntry loop = profile.getSite(5, 21);
+        assertNotNull(loop);
+        assertEquals(Profiler.Kind.WHILE, loop.getKind());
+        assertEquals(1, loop.getCount());
+        assertEquals(10, loop.getIterations());
+
+        // The tail call ends loop and starts last at the same depth
+        assertEquals(1, profile.getFunction("loop").getCount());
+        assertEquals(1, profile.getFunction("last").getCount());
+        assertTrue(profile.toJson().contains("\"kind\":\"while\",\"name\":\"while\",\"line\":5,\"column\":21,"
+                + "\"count\":1,\"iterations\":10"));
+    }
+
+    @Test
+    void testReportsIgnoreDefaultLocale() {
+        Locale locale = Locale.getDefault();
+        try {
+            // In Turkish the lower case of the I in WHILE is a dotless i and the decimal separator is a comma
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            Profile profile = Main.profile(PROGRAM, 1000, new MemorySink());
+            assertTrue(profile.toJson().contains("\"kind\":\"while\",\"name\":\"while\",\"line\":5"));
+            String table = profile.toString();
+            assertTrue(table.contains("while@5:21"), table);
+            assertTrue(table.contains("if@2:2"), table);
+            assertFalse(table.contains(","), table);
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
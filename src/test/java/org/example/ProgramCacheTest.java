@@ -0,0 +1,80 @@
+package org.example;
+
+import org.example.interpreter.opt.Optimizer;
+import org.example.interpreter.opt.Pass;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProgramCacheTest {
+
+    private static final String PROGRAM = "x = 1; while (x < 100) { x = x * 2 }; out(x)";
+
+    @Test
+    void testSameSourceCompiledOnce() {
+        ProgramCache cache = new ProgramCache(1 << 20);
+        Program program = cache.get(PROGRAM);
+        assertSame(program, cache.get(PROGRAM));
+        // Different passes give a different program
+        assertNotSame(program, cache.get(PROGRAM, new Optimizer(EnumSet.noneOf(Pass.class))));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getLoads());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void testPanicsAreNotCached() {
+        ProgramCache cache = new ProgramCache(1 << 20);
+        assertThrows(PanicException.class, () -> cache.get("out(x)"));
+        assertThrows(PanicException.class, () -> cache.get("out(x)"));
+        assertEquals(2, cache.getStats().getLoadFailures());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        long weight = Program.compile("out(0)").getWeight();
+        // Room for two of the programs
+        ProgramCache cache = new ProgramCache(weight * 2);
+        Program first = cache.get("out(0)");
+        cache.get("out(1)");
+        cache.get("out(0)");
+        cache.get("out(2)");
+        assertEquals(1, cache.getStats().getEvictions());
+        assertSame(first, cache.get("out(0)"));
+        assertEquals(weight * 2, cache.getStats().getWeight());
+    }
+
+    @Test
+    void testConcurrentRequestsShareTheLoad() throws Exception {
+        ProgramCache cache = new ProgramCache(1 << 20);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Program>> futures = IntStream.range(0, 200)
+                    .mapToObj((i) -> pool.submit(() -> cache.get(PROGRAM)))
+                    .collect(Collectors.toList());
+            Program program = futures.get(0).get();
+            for (Future<Program> future : futures) {
+                assertSame(program, future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, cache.getStats().getLoads());
+        assertEquals(200, cache.getStats().getHits() + cache.getStats().getMisses());
+    }
+}
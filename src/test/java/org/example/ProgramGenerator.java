@@ -0,0 +1,87 @@
+package org.example;
+
+import java.util.Random;
+
+// Generator of large well-typed programs for the benchmarks: many functions whose bodies are long chains of
+// operators of every precedence with deeply nested parentheses
+class ProgramGenerator {
+
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "mod"};
+
+    private final Random random;
+
+    ProgramGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // Function names can only have letters, no keyword starts with fn
+    static String name(int index) {
+        StringBuilder name = new StringBuilder("fn");
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+        return name.toString();
+    }
+
+    // The functions call the previous one, the top level command calls the last one
+    String generate(int functions, int depth, int width) {
+        StringBuilder program = new StringBuilder();
+        for (int i = 0; i < functions; i++) {
+            program.append("fun ").append(name(i)).append("(x, y) {\n  r = ");
+            expression(program, depth, width);
+            if (i > 0) {
+                program.append(" + ").append(name(i - 1)).append("(y, x)");
+            }
+            program.append(";\n  if (r > x & !(r == y) | x <= 1) then { r = r - 1 } else { skip };\n");
+            program.append("  return r\n}\n");
+        }
+        program.append("out(").append(functions > 0 ? name(functions - 1) + "(3, 4)" : "0").append(")\n");
+        return program.toString();
+    }
+
+    // Program of the given size: a chain of functions each running a loop and a sequence of assignments and
+    // calling the previous one, and a recursive function called as deep as the recursion of the size
+    String generate(ProgramSize size) {
+        StringBuilder program = new StringBuilder();
+        program.append("fun rec(n) {\n  if (n == 0) then { r = 0 } else { r = rec(n - 1) + 1 };\n  return r\n}\n");
+        for (int i = 0; i < size.getFunctions(); i++) {
+            program.append("fun ").append(name(i)).append("(x, y) {\n  r = 0; i = 0;\n");
+            program.append("  while (i < ").append(size.getTrips()).append(") { r = r + ");
+            expression(program, size.getNesting(), 3);
+            program.append("; i = i + 1 }");
+            for (int j = 0; j < size.getStatements(); j++) {
+                program.append(";\n  r = r - ");
+                expression(program, size.getNesting(), 3);
+            }
+            if (i > 0) {
+                program.append(";\n  r = r + ").append(name(i - 1)).append("(y, x)");
+            }
+            program.append(";\n  return r\n}\n");
+        }
+        if (size.getFunctions() > 0) {
+            program.append("out(").append(name(size.getFunctions() - 1)).append("(3, 4));\n");
+        }
+        return program.append("out(rec(").append(size.getRecursion()).append("))\n").toString();
+    }
+
+    private void expression(StringBuilder out, int depth, int width) {
+        if (depth == 0) {
+            out.append(random.nextBoolean() ? "x" : random.nextInt(100) + 1);
+            return;
+        }
+        out.append('(');
+        for (int i = 0; i < width; i++) {
+            if (i > 0) {
+                out.append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)]).append(' ');
+            }
+            // Only the first operand goes deeper, so the size grows linearly with the depth
+            if (i == 0) {
+                expression(out, depth - 1, width);
+            } else {
+                out.append(random.nextBoolean() ? "y" : random.nextInt(9) + 1);
+            }
+        }
+        out.append(')');
+    }
+}
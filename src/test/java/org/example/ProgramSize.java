@@ -0,0 +1,79 @@
+package org.example;
+
+// Size of a program built by ProgramGenerator, every dimension can grow on its own
+class ProgramSize {
+
+    private final int functions;
+    // Assignments after the loop in the body of every function
+    private final int statements;
+    // Iterations of the loop of every function
+    private final int trips;
+    // Depth of the calls of the recursive function
+    private final int recursion;
+    // Depth of the nested parentheses of every expression
+    private final int nesting;
+
+    ProgramSize(int functions, int statements, int trips, int recursion, int nesting) {
+        this.functions = functions;
+        this.statements = statements;
+        this.trips = trips;
+        this.recursion = recursion;
+        this.nesting = nesting;
+    }
+
+    int getFunctions() {
+        return functions;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    int getTrips() {
+        return trips;
+    }
+
+    int getRecursion() {
+        return recursion;
+    }
+
+    int getNesting() {
+        return nesting;
+    }
+
+    // The size with the named dimension multiplied by the factor
+    ProgramSize scale(String dimension, int factor) {
+        switch (dimension) {
+            case "functions":
+                return new ProgramSize(functions * factor, statements, trips, recursion, nesting);
+            case "statements":
+                return new ProgramSize(functions, statements * factor, trips, recursion, nesting);
+            case "trips":
+                return new ProgramSize(functions, statements, trips * factor, recursion, nesting);
+            case "recursion":
+                return new ProgramSize(functions, statements, trips, recursion * factor, nesting);
+            case "nesting":
+                return new ProgramSize(functions, statements, trips, recursion, nesting * factor);
+            default:
+                throw new IllegalArgumentException("Unknown dimension " + dimension);
+        }
+    }
+
+    // Value of the named dimension
+    int get(String dimension) {
+        switch (dimension) {
+            case "functions":
+                return functions;
+            case "statements":
+                return statements;
+            case "trips":
+                return trips;
+            case "recursion":
+                return recursion;
+            case "nesting":
+                return nesting;
+            default:
+                throw new IllegalArgumentException("Unknown dimension " + dimension);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+import org.example.interpreter.Sampler;
+import org.example.interpreter.output.MemorySink;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplerTest {
+
+    private static final String FIB = "fun fib(n) {\n"
+            + "  if (n < 2) then { ret = n } else { ret = fib(n - 1) + fib(n - 2) };\n"
+            + "  return ret\n"
+            + "}\n"
+            + "out(fib(24))";
+
+    @Test
+    void testCollapsedStacks() {
+        MemorySink out = new MemorySink();
+        Sampler sampler = Main.sample(FIB, 1000, out, 50_000);
+        assertEquals("46368", out.getOutput().trim());
+
+        Map<String, Long> samples = sampler.getSamples();
+        assertTrue(samples.size() > 1, samples.toString());
+        // Every stack starts from the top level call, the recursive calls are on line 2
+        for (String stack : samples.keySet()) {
+            assertTrue(stack.equals("main") || stack.startsWith("main:5;fib"), stack);
+        }
+        assertTrue(samples.keySet().stream().anyMatch(stack -> stack.startsWith("main:5;fib:2;fib:2;fib")));
+        for (String line : sampler.toCollapsed().split("\n")) {
+            assertTrue(line.matches("[a-z0-9:;]+ [0-9]+"), line);
+        }
+    }
+}